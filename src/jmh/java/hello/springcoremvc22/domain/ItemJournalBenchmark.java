@@ -0,0 +1,57 @@
+package hello.springcoremvc22.domain;
+
+import hello.springcoremvc22.domain.journal.FsyncPolicy;
+import hello.springcoremvc22.domain.journal.ItemJournal;
+import hello.springcoremvc22.domain.journal.JournalProperties;
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemJournalCodec;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * fsync 정책별 영속화 모드 save 처리량 ( 8 스레드 )
+ * - ALWAYS: 기록마다 fsync
+ * - GROUP: 여러 스레드의 기록을 모아 한 번에 fsync
+ * - NONE: fsync 없음
+ * - 반복 ( iteration ) 마다 빈 디렉토리에서 시작한다. ( 스냅샷은 만들지 않는다. )
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class ItemJournalBenchmark {
+    @Param({"ALWAYS", "GROUP", "NONE"})
+    FsyncPolicy policy;
+
+    Path directory;
+    ItemJournal<Item> journal;
+    ItemRepository itemRepository;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("item-journal-benchmark");
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory);
+        properties.setFsyncPolicy(policy);
+        properties.setSnapshotEvery(Integer.MAX_VALUE);
+        journal = new ItemJournal<>("benchmark-items", new ItemJournalCodec(), properties);
+        itemRepository = new ItemRepository(journal);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemRepository.save(new Item("item", 1000, 10));
+    }
+}
@@ -0,0 +1,54 @@
+package hello.springcoremvc22.domain;
+
+import hello.springcoremvc22.domain.page.CursorPage;
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemRepository save / findById / findAll / findPage
+ * - catalogSize 만큼 미리 채운 저장소에서 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemRepositoryBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        itemRepository = new ItemRepository();
+        for (int i = 0; i < catalogSize; i++) {
+            itemRepository.save(new Item("item" + i, 1000 + i % 1000, 10));
+        }
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemRepository.save(new Item("item", 1000, 10));
+    }
+
+    @Benchmark
+    public Item findById() {
+        return itemRepository.findById(ThreadLocalRandom.current().nextLong(1, catalogSize + 1));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Item> findAll() {
+        return itemRepository.findAll();
+    }
+
+    @Benchmark
+    public CursorPage<Item> findPage() {
+        long cursor = ThreadLocalRandom.current().nextLong(0, catalogSize);
+        return itemRepository.findPage(cursor, CursorPage.DEFAULT_SIZE);
+    }
+}
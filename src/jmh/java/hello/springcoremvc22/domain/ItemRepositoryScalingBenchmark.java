@@ -0,0 +1,54 @@
+package hello.springcoremvc22.domain;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스레드 수에 따른 ItemRepository save + findById 처리량
+ * - 같은 저장소를 스레드 1 / 2 / 4 / 코어 수 ( Threads.MAX ) 개가 동시에 사용한다.
+ *   => 코어 수에 따라 처리량이 늘어나는지 메서드끼리 비교한다.
+ * - 반복 ( iteration ) 마다 빈 저장소로 시작한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ItemRepositoryScalingBenchmark {
+    ItemRepository itemRepository;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        itemRepository = new ItemRepository();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Item threads1() {
+        return saveAndFind();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Item threads2() {
+        return saveAndFind();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Item threads4() {
+        return saveAndFind();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Item threadsMax() {
+        return saveAndFind();
+    }
+
+    private Item saveAndFind() {
+        Item savedItem = itemRepository.save(new Item("item", 1000, 10));
+        return itemRepository.findById(savedItem.getId());
+    }
+}
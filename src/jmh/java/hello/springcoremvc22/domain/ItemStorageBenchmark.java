@@ -0,0 +1,86 @@
+package hello.springcoremvc22.domain;
+
+import hello.springcoremvc22.domain.item.ColumnarItemStorage;
+import hello.springcoremvc22.domain.item.HeapItemStorage;
+import hello.springcoremvc22.domain.item.Item;
+import hello.springcoremvc22.domain.item.ItemRepository;
+import hello.springcoremvc22.domain.item.ItemSearchCond;
+import hello.springcoremvc22.domain.item.ItemStorage;
+import hello.springcoremvc22.domain.item.ItemType;
+import hello.springcoremvc22.domain.page.CursorPage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 저장 방식 ( heap / columnar / columnar + off-heap ) 별 findById / 검색 페이지 / 전체 순회
+ * - 메모리 차이는 -prof gc 또는 힙 덤프로 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemStorageBenchmark {
+    private static final List<String> REGIONS = List.of("SEOUL", "BUSAN", "JEJU");
+    private static final List<String> DELIVERY_CODES = List.of("FAST", "NORMAL", "SLOW");
+
+    @Param({"100000", "1000000"})
+    int catalogSize;
+
+    @Param({"heap", "columnar", "off-heap"})
+    String storage;
+
+    ItemRepository itemRepository;
+    ItemSearchCond cond;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        itemRepository = new ItemRepository(null, storage(storage, catalogSize * 2));
+        ItemType[] itemTypes = ItemType.values();
+        for (int i = 0; i < catalogSize; i++) {
+            Item item = new Item("item" + i, 1000 + i % 1000, 10);
+            item.setOpen(i % 2 == 0);
+            item.setRegions(List.of(REGIONS.get(i % REGIONS.size())));
+            item.setItemType(itemTypes[i % itemTypes.length]);
+            item.setDeliveryCode(DELIVERY_CODES.get(i % DELIVERY_CODES.size()));
+            itemRepository.save(item);
+        }
+
+        cond = new ItemSearchCond();
+        cond.setRegion("JEJU");
+        cond.setOpen(true);
+        cond.setMinPrice(1500);
+    }
+
+    @Benchmark
+    public Item findById() {
+        return itemRepository.findById(ThreadLocalRandom.current().nextLong(1, catalogSize + 1));
+    }
+
+    @Benchmark
+    public CursorPage<Item> findPageByCond() {
+        long cursor = ThreadLocalRandom.current().nextLong(0, catalogSize);
+        return itemRepository.findPage(cond, cursor, CursorPage.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long sumPrices() {
+        long sum = 0;
+        Iterator<Item> items = itemRepository.iterator();
+        while (items.hasNext()) {
+            sum += items.next().getPrice();
+        }
+        return sum;
+    }
+
+    private static ItemStorage storage(String storage, int capacity) {
+        return switch (storage) {
+            case "columnar" -> new ColumnarItemStorage(capacity, false);
+            case "off-heap" -> new ColumnarItemStorage(capacity, true);
+            default -> new HeapItemStorage();
+        };
+    }
+}
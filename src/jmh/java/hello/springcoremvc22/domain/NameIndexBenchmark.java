@@ -0,0 +1,55 @@
+package hello.springcoremvc22.domain;
+
+import hello.springcoremvc22.domain.search.NameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이름 검색 ( 접두어 / 부분 문자열 ) 지연 시간 분포
+ * - SampleTime 이라 p99 / p99.9 가 함께 나온다. ( -prof gc 로 검색당 할당 확인 )
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameIndexBenchmark {
+    private static final String[] WORDS = {"apple", "banana", "cherry", "grape", "lemon", "mango", "melon", "peach"};
+
+    @Param({"100000", "500000"})
+    int catalogSize;
+
+    NameIndex nameIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        nameIndex = new NameIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            nameIndex.put(i + 1, WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i);
+        }
+    }
+
+    @Benchmark
+    public List<NameIndex.Match> prefix() {
+        return nameIndex.search(WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)].substring(0, 3), 10);
+    }
+
+    @Benchmark
+    public List<NameIndex.Match> substring() {
+        return nameIndex.search("an " + WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)].substring(0, 2), 10);
+    }
+
+    /**
+     * gram ( "an", "na" ) 은 거의 모든 이름에 있지만 검색어는 어느 이름에도 없다. ( 후보 확인 한도까지만 훑는다. )
+     */
+    @Benchmark
+    public List<NameIndex.Match> rareQueryCommonGrams() {
+        return nameIndex.search("ananan", 10);
+    }
+
+    @Benchmark
+    public List<NameIndex.Match> numberSuffix() {
+        return nameIndex.search(String.valueOf(ThreadLocalRandom.current().nextInt(catalogSize)), 10);
+    }
+}
@@ -0,0 +1,91 @@
+package hello.springcoremvc22.message;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.MessageCodesResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * errors.properties 코드 해석
+ * - direct: 코드 하나 ( Level 1 에서 바로 찾음 )
+ * - codeChain: FieldError 처럼 4단계 코드 배열을 순서대로 탐색 ( Level 3 에서 찾음 )
+ * - codeChainMiss: 어떤 코드도 없어서 기본 메시지로 떨어짐
+ *
+ * implementation
+ * - resourceBundle: 스프링 부트 기본 ResourceBundleMessageSource
+ * - flat: FlatMessageSource ( locale 별 평면 테이블 + 코드 배열 / MessageFormat 캐시 )
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageSourceBenchmark {
+    @Param({"resourceBundle", "flat"})
+    String implementation;
+
+    MessageSource messageSource;
+    DefaultMessageSourceResolvable direct;
+    DefaultMessageSourceResolvable codeChain;
+    DefaultMessageSourceResolvable codeChainMiss;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        messageSource = "flat".equals(implementation) ? createFlatMessageSource() : createMessageSource();
+
+        MessageCodesResolver codesResolver = new DefaultMessageCodesResolver();
+        direct = new DefaultMessageSourceResolvable(
+                new String[]{"range.item.price"}, new Object[]{1000, 1000000});
+        codeChain = new DefaultMessageSourceResolvable(
+                codesResolver.resolveMessageCodes("range", "itemSaveDto", "price", Integer.class),
+                new Object[]{1000, 1000000});
+        codeChainMiss = new DefaultMessageSourceResolvable(
+                codesResolver.resolveMessageCodes("unknown", "itemSaveDto", "price", Integer.class),
+                null, "default");
+    }
+
+    /**
+     * application.properties 의 spring.messages.* 와 같은 설정
+     */
+    public static ResourceBundleMessageSource createMessageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("config.messages.messages", "config.errors.errors");
+        messageSource.setDefaultEncoding("utf-8");
+        messageSource.setFallbackToSystemLocale(true);
+        return messageSource;
+    }
+
+    public static FlatMessageSource createFlatMessageSource() {
+        FlatMessageSource messageSource = new FlatMessageSource(
+                new DefaultResourceLoader(), StandardCharsets.UTF_8,
+                "config.messages.messages", "config.errors.errors"
+        );
+        messageSource.load();
+        return messageSource;
+    }
+
+    @Benchmark
+    public String direct() {
+        return messageSource.getMessage(direct, Locale.KOREAN);
+    }
+
+    @Benchmark
+    public String codeChain() {
+        return messageSource.getMessage(codeChain, Locale.KOREAN);
+    }
+
+    @Benchmark
+    public String codeChainMiss() {
+        return messageSource.getMessage(codeChainMiss, Locale.KOREAN);
+    }
+
+    @Benchmark
+    public String label() {
+        return messageSource.getMessage("label.item.itemName", null, Locale.ENGLISH);
+    }
+}
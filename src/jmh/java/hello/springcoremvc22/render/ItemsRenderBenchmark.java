@@ -0,0 +1,71 @@
+package hello.springcoremvc22.render;
+
+import hello.springcoremvc22.domain.page.CursorPage;
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.message.MessageSourceBenchmark;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * validation/v2/items.html 렌더링 ( 상품 N 개 )
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemsRenderBenchmark {
+    @Param({"10", "100", "1000"})
+    int items;
+
+    SpringTemplateEngine templateEngine;
+    WebContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(MessageSourceBenchmark.createMessageSource());
+
+        List<Item> content = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            Item item = new Item("item" + i, 1000 * i, 10);
+            item.setId((long) i);
+            content.add(item);
+        }
+
+        MockServletContext servletContext = new MockServletContext();
+        JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+        context = new WebContext(
+                application.buildExchange(new MockHttpServletRequest(servletContext), new MockHttpServletResponse()),
+                Locale.KOREAN
+        );
+        context.setVariable("items", content);
+        context.setVariable("page", new CursorPage<>(content, null, items));
+    }
+
+    @Benchmark
+    public String render() {
+        StringWriter writer = new StringWriter(items * 256);
+        templateEngine.process("validation/v2/items", context, writer);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package hello.springcoremvc22.validation;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.SaveCheck;
+import hello.springcoremvc22.dto.item.ItemSaveDto;
+import hello.springcoremvc22.validation.CompiledBeanValidator;
+import hello.springcoremvc22.web.validation.v2.CompiledItemValidator;
+import hello.springcoremvc22.web.validation.v2.ItemValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemValidator ( 직접 구현 ) vs CompiledItemValidator vs Bean Validation ( Hibernate Validator )
+ * - beanValidation: Hibernate Validator 직접 호출
+ * - springBeanValidation / compiledBeanValidation: MVC 와 같이 BindingResult 에 오류를 담는 경우
+ * - totalPriceMin: 클래스 레벨 @TotalPriceMin 만 검사 ( Hibernate Validator, Default 그룹 없이 단독 )
+ * - valid: 오류 없는 입력 / invalid: 모든 필드 + 복합 룰 오류
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+    @Param({"valid", "invalid"})
+    String input;
+
+    ItemValidator itemValidator;
+    CompiledItemValidator compiledItemValidator;
+    ValidatorFactory validatorFactory;
+    Validator beanValidator;
+    LocalValidatorFactoryBean springBeanValidator;
+    CompiledBeanValidator compiledBeanValidator;
+
+    Item item;
+    ItemSaveDto itemSaveDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        itemValidator = new ItemValidator();
+        compiledItemValidator = new CompiledItemValidator();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+        springBeanValidator = new LocalValidatorFactoryBean();
+        springBeanValidator.afterPropertiesSet();
+        compiledBeanValidator = new CompiledBeanValidator(springBeanValidator, true, ItemSaveDto.class);
+
+        boolean valid = "valid".equals(input);
+        item = new Item(valid ? "itemA" : " ", valid ? 10000 : 10, valid ? 10 : 10000);
+        itemSaveDto = new ItemSaveDto();
+        itemSaveDto.setItemName(item.getItemName());
+        itemSaveDto.setPrice(item.getPrice());
+        itemSaveDto.setQuantity(item.getQuantity());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+        springBeanValidator.destroy();
+    }
+
+    @Benchmark
+    public BindingResult itemValidator() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        itemValidator.validate(item, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult compiledItemValidator() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        compiledItemValidator.validate(item, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ItemSaveDto>> beanValidation() {
+        return beanValidator.validate(itemSaveDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Item>> totalPriceMin() {
+        return beanValidator.validate(item, SaveCheck.class);
+    }
+
+    @Benchmark
+    public BindingResult springBeanValidation() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(itemSaveDto, "item");
+        springBeanValidator.validate(itemSaveDto, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult compiledBeanValidation() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(itemSaveDto, "item");
+        compiledBeanValidator.validate(itemSaveDto, bindingResult);
+        return bindingResult;
+    }
+}
@@ -0,0 +1,87 @@
+package hello.springcoremvc22.web;
+
+import hello.springcoremvc22.SpringCoreMvc22Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 세션 방식 vs 서명한 쿠키 방식 LocaleResolver
+ * - 한 번 = 새 방문자가 ?lang=ko 로 언어를 바꾸고, 받은 쿠키로 다음 페이지를 한 번 더 요청한다.
+ * - 세션 방식은 방문자마다 세션이 남는다. => 힙 차이는 -prof gc ( 방문자당 할당 / GC 횟수 ) 로 비교한다.
+ * - ./gradlew jmh -Pjmh.includes=LocaleResolverBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class LocaleResolverBenchmark {
+    @Param({"session", "cookie"})
+    String resolver;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    URI change;
+    URI next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringCoreMvc22Application.class)
+                .properties(
+                        "server.port=0",
+                        "locale.resolver=" + resolver,
+                        "locale.cookie.secret=benchmark",
+                        "spring.messages.fallback-to-system-locale=false",
+                        "logging.level.root=warn"
+                )
+                .run();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        change = URI.create("http://localhost:" + port + "/form/items?lang=ko");
+        next = URI.create("http://localhost:" + port + "/form/items");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int visit() throws Exception {
+        HttpResponse<Void> changed = client.send(request(change, null), HttpResponse.BodyHandlers.discarding());
+        String cookies = cookies(changed.headers().allValues(HttpHeaders.SET_COOKIE));
+        return client.send(request(next, cookies), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static HttpRequest request(URI uri, String cookies) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).header(HttpHeaders.ACCEPT_LANGUAGE, "en-US");
+        if (cookies != null && !cookies.isEmpty()) {
+            builder.header(HttpHeaders.COOKIE, cookies);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Set-Cookie 들에서 이름=값 만 모은다.
+     */
+    private static String cookies(List<String> setCookies) {
+        StringBuilder cookies = new StringBuilder();
+        for (String setCookie : setCookies) {
+            if (cookies.length() > 0) {
+                cookies.append("; ");
+            }
+            int end = setCookie.indexOf(';');
+            cookies.append(setCookie, 0, end < 0 ? setCookie.length() : end);
+        }
+        return cookies.toString();
+    }
+}
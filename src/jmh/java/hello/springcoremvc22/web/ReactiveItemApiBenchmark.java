@@ -0,0 +1,82 @@
+package hello.springcoremvc22.web;
+
+import hello.springcoremvc22.SpringCoreMvc22Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 등록 API: 서블릿 ( /validation/api/items/add ) vs reactive ( /validation/api/reactive/items/add )
+ * - 동시 요청 200 개, 검증 성공 / 실패 본문을 번갈아 보낸다.
+ * - Throughput / SampleTime ( p99 ) 과 함께, 측정 중 최대 스레드 수를 출력한다.
+ * - ./gradlew jmh -Pjmh.includes=ReactiveItemApiBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(200)
+public class ReactiveItemApiBenchmark {
+    private static final String VALID = "{\"itemName\": \"itemA\", \"price\": 10000, \"quantity\": 10}";
+    private static final String INVALID = "{\"itemName\": \" \", \"price\": 100, \"quantity\": 10000}";
+
+    @Param({"servlet", "reactive"})
+    String api;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    URI add;
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringCoreMvc22Application.class)
+                .properties("server.port=0", "logging.level.root=warn")
+                .run();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String path = api.equals("reactive") ? "/validation/api/reactive/items/add" : "/validation/api/items/add";
+        add = URI.create("http://localhost:" + port + path);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeak() {
+        System.out.printf("%n[%s] peak threads = %d, live threads = %d%n", api, threads.getPeakThreadCount(), threads.getThreadCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int valid() throws Exception {
+        return send(VALID);
+    }
+
+    @Benchmark
+    public int invalid() throws Exception {
+        return send(INVALID);
+    }
+
+    private int send(String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(add)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
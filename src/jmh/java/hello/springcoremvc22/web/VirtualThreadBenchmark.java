@@ -0,0 +1,82 @@
+package hello.springcoremvc22.web;
+
+import hello.springcoremvc22.SpringCoreMvc22Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플랫폼 스레드 풀 ( Tomcat 기본 200 ) vs 가상 스레드
+ * - 앱을 띄우고 동시 요청 400 개로 /validation/v2/items 의 등록 ( POST ) / 목록 ( GET ) 을 호출한다.
+ * - 영속화 모드 + fsync=always 로 등록 요청마다 blocking I/O 를 넣는다.
+ * - Throughput = 처리할 수 있는 동시 요청량, SampleTime = p99 지연 시간
+ * - ./gradlew jmh -Pjmh.includes=VirtualThreadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+public class VirtualThreadBenchmark {
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    URI items;
+    URI add;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path journalDirectory = Files.createTempDirectory("virtual-thread-benchmark");
+        context = new SpringApplicationBuilder(SpringCoreMvc22Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "item.journal.enabled=true",
+                        "item.journal.directory=" + journalDirectory,
+                        "item.journal.fsync-policy=always",
+                        "page.cache.enabled=false",
+                        "logging.level.root=warn"
+                )
+                .run();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        items = URI.create("http://localhost:" + port + "/validation/v2/items");
+        add = URI.create("http://localhost:" + port + "/validation/v2/items/add");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 등록 ( 검증 + 저장 + 로그 fsync ) 후 302
+     */
+    @Benchmark
+    public int addItem() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(add)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("itemName=bench&price=10000&quantity=10"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * 목록 렌더링 ( 첫 페이지 )
+     */
+    @Benchmark
+    public int items() throws Exception {
+        return client.send(HttpRequest.newBuilder(items).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,63 @@
+package hello.springcoremvc22.web.metrics;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나당 지표 기록 비용 ( 목표: 1 µs 미만 )
+ * - 인터셉터 3 단계 + 바인딩 / 검증 / 컨트롤러 / 저장소 구간 추가 + 히스토그램 6 개 기록
+ * - 여러 스레드에서 같은 핸들러를 기록할 때의 경합은 @Threads 로 확인 ( -t 8 )
+ * - threads=virtual: 요청마다 새 가상 스레드에서 실행 ( spring.threads.virtual.enabled=true 와 같다. )
+ *   => request - baseline ( 같은 스레드 생성만 ) 이 지표 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsOverheadBenchmark {
+    @Param({"platform", "virtual"})
+    String threads;
+
+    MetricsInterceptor interceptor = new MetricsInterceptor(new RequestMetrics());
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/validation/v3/items/add");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    HandlerMethod handler;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new HandlerMethod(this, MetricsOverheadBenchmark.class.getMethod("request"));
+    }
+
+    @Benchmark
+    public void request() throws InterruptedException {
+        run(this::record);
+    }
+
+    @Benchmark
+    public void baseline() throws InterruptedException {
+        run(() -> {
+        });
+    }
+
+    private void record() {
+        interceptor.preHandle(request, response, handler);
+        RequestTrace trace = RequestTrace.current();
+        trace.add(Phase.BINDING, System.nanoTime() & 0xFFFF);
+        trace.add(Phase.VALIDATION, System.nanoTime() & 0xFFFF);
+        trace.add(Phase.REPOSITORY, System.nanoTime() & 0xFFFF);
+        trace.add(Phase.HANDLER, System.nanoTime() & 0xFFFF);
+        interceptor.postHandle(request, response, handler, null);
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+
+    private void run(Runnable task) throws InterruptedException {
+        if ("virtual".equals(threads)) {
+            Thread.ofVirtual().start(task).join();
+        } else {
+            task.run();
+        }
+    }
+}
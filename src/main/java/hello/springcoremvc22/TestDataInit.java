@@ -11,8 +11,14 @@ import org.springframework.stereotype.Component;
 public class TestDataInit {
     private final ItemRepository itemRepository;
     
+    /**
+     * 영속화 모드에서 복구된 데이터가 있으면 다시 넣지 않는다.
+     */
     @PostConstruct
     public void init() {
+        if (!itemRepository.isEmpty()) {
+            return;
+        }
         itemRepository.save(new Item("itemA", 1000, 10));
         itemRepository.save(new Item("itemB", 2000, 10));
     }
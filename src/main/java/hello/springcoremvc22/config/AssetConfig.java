@@ -0,0 +1,54 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.web.asset.ImmutableResourceResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정적 자원 설정 ( 핸들러는 WebConfig 가 모아서 등록한다. )
+ */
+@Configuration
+public class AssetConfig implements WebMvcConfigurer {
+    /**
+     * 정적 자원 경로 해석 결과 캐시 ( 개발 중 css 를 고치면서 볼 때만 끈다. )
+     */
+    @Value("${assets.cache:true}")
+    private boolean assetsCache;
+
+    /**
+     * 정적 자원 ( /css/** )
+     * - 파일 이름에 내용 해시: main.css -> main-{md5}.css ( 내용이 바뀌면 URL 이 바뀐다. )
+     *   => 해시 URL 만 1 년 + immutable 캐시 ( 브라우저가 다시 확인하지 않는다. )
+     *   => 해시 없는 URL 은 no-cache ( 매번 ETag / Last-Modified 로 다시 확인한다. )
+     * - 빌드할 때 미리 압축해 둔 .br / .gz 가 있으면 Accept-Encoding 에 맞춰 그 파일을 그대로 보낸다. ( 요청마다 압축 X )
+     */
+    @Override
+    public void addResourceHandlers(
+            ResourceHandlerRegistry registry
+    ) {
+        registry.addResourceHandler("/css/**")
+                .addResourceLocations("classpath:/static/css/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(assetsCache)
+                .addResolver(new ImmutableResourceResolver(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()))
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * 템플릿의 @{/css/main.css} 를 해시가 붙은 URL 로 바꾼다. ( response.encodeURL )
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -0,0 +1,25 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.domain.item.ColumnarItemStorage;
+import hello.springcoremvc22.domain.item.HeapItemStorage;
+import hello.springcoremvc22.domain.item.ItemStorage;
+import hello.springcoremvc22.domain.item.ItemStorageProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 상품 저장 방식 설정 ( item.storage.mode = heap | columnar )
+ * - 상품이 많아 heap / GC 부담이 크면 columnar ( + off-heap ) 를 쓴다.
+ */
+@Configuration
+@EnableConfigurationProperties(ItemStorageProperties.class)
+public class ItemStorageConfig {
+    @Bean
+    public ItemStorage itemStorage(ItemStorageProperties properties) {
+        if (properties.getMode() == ItemStorageProperties.Mode.COLUMNAR) {
+            return new ColumnarItemStorage(properties.getCapacity(), properties.isOffHeap());
+        }
+        return new HeapItemStorage();
+    }
+}
@@ -0,0 +1,33 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.domain.item.Item;
+import hello.springcoremvc22.domain.item.ItemJournalCodec;
+import hello.springcoremvc22.domain.journal.ItemJournal;
+import hello.springcoremvc22.domain.journal.JournalProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 영속화 모드 설정
+ * - item.journal.enabled=true 일 때만 로그를 만든다.
+ * - 저장소는 생성될 때 로그가 있으면 복구하고, 이후 변경을 로그에 남긴다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "item.journal", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(JournalProperties.class)
+public class JournalConfig {
+    @Bean
+    public ItemJournal<Item> formItemJournal(JournalProperties properties) {
+        return new ItemJournal<>("form-items", new ItemJournalCodec(), properties);
+    }
+
+    @Bean
+    public ItemJournal<hello.springcoremvc22.domain.validation.Item> validationItemJournal(
+            JournalProperties properties
+    ) {
+        return new ItemJournal<>("validation-items",
+                new hello.springcoremvc22.domain.validation.ItemJournalCodec(), properties);
+    }
+}
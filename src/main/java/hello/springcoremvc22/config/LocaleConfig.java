@@ -1,23 +1,52 @@
 package hello.springcoremvc22.config;
 
+import hello.springcoremvc22.web.locale.SignedCookieLocaleResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
 import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
 import java.util.Locale;
 
+/**
+ * Locale 설정 ( LocaleResolver + ?lang= 인터셉터 )
+ * - 인터셉터는 WebConfig 가 모아서 등록한다.
+ */
+@Slf4j
 @Configuration
-public class LocaleConfig extends WebMvcConfigurationSupport {
+public class LocaleConfig implements WebMvcConfigurer {
+    /**
+     * session: 세션에 저장 ( 기본 )
+     * cookie: 서명한 쿠키 + Accept-Language ( 세션을 만들지 않는다. )
+     */
+    @Value("${locale.resolver:session}")
+    private String resolverType;
+
+    /**
+     * 쿠키 서명 키 ( 여러 서버가 같은 값을 써야 한다. )
+     * - 비어 있으면 시작할 때마다 새로 만든다. => 재시작하면 이전 쿠키는 무시된다.
+     */
+    @Value("${locale.cookie.secret:}")
+    private String cookieSecret;
+
     /**
      * LocaleResolver 설정
-     * - Session 방식 사용
+     * - locale.resolver 에 따라 Session 방식 / 서명한 쿠키 방식
      */
     @Bean
     public LocaleResolver localeResolver() {
+        if ("cookie".equals(resolverType)) {
+            return new SignedCookieLocaleResolver(cookieSecret(), Locale.ENGLISH);
+        }
+
         SessionLocaleResolver sessionLocaleResolver = new SessionLocaleResolver();
         sessionLocaleResolver.setDefaultLocale(Locale.ENGLISH);
         return sessionLocaleResolver;
@@ -38,9 +67,19 @@ public class LocaleConfig extends WebMvcConfigurationSupport {
      * 인터셉터 등록
      */
     @Override
-    protected void addInterceptors(
+    public void addInterceptors(
             InterceptorRegistry registry
     ) {
         registry.addInterceptor(localeChangeInterceptor());
     }
+
+    private byte[] cookieSecret() {
+        if (StringUtils.hasText(cookieSecret)) {
+            return cookieSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        log.warn("locale.cookie.secret is not set, using a random key ( locale cookies are reset on restart )");
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
 }
@@ -0,0 +1,61 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.message.FlatMessageSource;
+import hello.springcoremvc22.message.MessageBundleWatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.context.MessageSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * 메시지 설정 ( spring.messages.* 는 그대로 사용 )
+ * - message.flat.enabled=false 면 스프링 부트 기본 ResourceBundleMessageSource 를 사용
+ * - message.location: 번들 파일 위치 ( 개발 중에는 file:src/main/resources/ )
+ * - message.reload.enabled=true 면 번들 파일이 바뀔 때 다시 읽는다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "message.flat.enabled", havingValue = "true", matchIfMissing = true)
+public class MessageConfig {
+    @Bean
+    @ConfigurationProperties("spring.messages")
+    public MessageSourceProperties messageSourceProperties() {
+        return new MessageSourceProperties();
+    }
+
+    /**
+     * 이름이 messageSource 여야 ApplicationContext 의 MessageSource 로 쓰인다.
+     */
+    @Bean
+    public FlatMessageSource messageSource(
+            MessageSourceProperties properties,
+            ResourceLoader resourceLoader,
+            @Value("${message.location:classpath:}") String location
+    ) {
+        String[] basenames = StringUtils.commaDelimitedListToStringArray(
+                StringUtils.trimAllWhitespace(properties.getBasename()));
+        FlatMessageSource messageSource = new FlatMessageSource(resourceLoader, properties.getEncoding(), basenames);
+        messageSource.setFallbackToSystemLocale(properties.isFallbackToSystemLocale());
+        messageSource.setAlwaysUseMessageFormat(properties.isAlwaysUseMessageFormat());
+        messageSource.setUseCodeAsDefaultMessage(properties.isUseCodeAsDefaultMessage());
+        messageSource.setLocation(location);
+        messageSource.load();
+        return messageSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "message.reload.enabled", havingValue = "true")
+    public MessageBundleWatcher messageBundleWatcher(
+            FlatMessageSource messageSource,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${message.reload.debounce:200ms}") Duration debounce
+    ) {
+        return new MessageBundleWatcher(messageSource, eventPublisher, debounce);
+    }
+}
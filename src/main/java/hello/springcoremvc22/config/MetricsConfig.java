@@ -0,0 +1,61 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.web.metrics.MetricsInterceptor;
+import hello.springcoremvc22.web.metrics.RepositoryTimingPostProcessor;
+import hello.springcoremvc22.web.metrics.RequestMetrics;
+import hello.springcoremvc22.web.metrics.TimedRequestMappingHandlerAdapter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * 요청 지표 설정 ( metrics.enabled=false 면 아래 빈 / 인터셉터 / 어댑터 모두 등록하지 않는다. )
+ * - 인터셉터, 어댑터는 WebConfig 가 모아서 등록한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig implements WebMvcConfigurer {
+    @Bean
+    public RequestMetrics requestMetrics() {
+        return new RequestMetrics();
+    }
+
+    @Bean
+    public MetricsInterceptor metricsInterceptor(RequestMetrics requestMetrics) {
+        return new MetricsInterceptor(requestMetrics);
+    }
+
+    /**
+     * 지표 인터셉터를 가장 먼저 둔다. => 다른 인터셉터 시간도 TOTAL 에 들어간다.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(metricsInterceptor(requestMetrics())).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    /**
+     * 바인딩 / 검증 / 컨트롤러 실행 시간을 재는 어댑터
+     */
+    @Bean
+    public WebMvcRegistrations timedHandlerAdapterRegistrations() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new TimedRequestMappingHandlerAdapter();
+            }
+        };
+    }
+
+    /**
+     * BeanPostProcessor 는 static ( 설정 클래스보다 먼저 만들어진다. )
+     */
+    @Bean
+    public static RepositoryTimingPostProcessor repositoryTimingPostProcessor() {
+        return new RepositoryTimingPostProcessor();
+    }
+}
@@ -0,0 +1,44 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.domain.item.ItemRepository;
+import hello.springcoremvc22.web.cache.PageCacheFilter;
+import hello.springcoremvc22.web.cache.RenderedPageCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.LocaleResolver;
+
+/**
+ * 렌더링 결과 캐시 설정
+ * - page.cache.enabled=false 면 매 요청 렌더링한다.
+ * - 상품 목록 ( /validation/v1..v4/items ) 은 전체 버전, 상품 상세 ( /form/items/{itemId} ) 는 상품 버전으로 캐시한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "page.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class PageCacheConfig {
+    @Bean
+    public RenderedPageCache renderedPageCache(
+            @Value("${page.cache.max-entries:1000}") int maxEntries
+    ) {
+        return new RenderedPageCache(maxEntries);
+    }
+
+    @Bean
+    public FilterRegistrationBean<PageCacheFilter> pageCacheFilter(
+            RenderedPageCache renderedPageCache,
+            LocaleResolver localeResolver,
+            ItemRepository itemRepository,
+            hello.springcoremvc22.domain.validation.ItemRepository validationItemRepository
+    ) {
+        PageCacheFilter filter = new PageCacheFilter(renderedPageCache, localeResolver);
+        filter.addPage("/validation/v{n:[1-4]}/items", variables -> validationItemRepository.version());
+        filter.addPage("/form/items/{itemId:\\d{1,18}}",
+                variables -> itemRepository.version(Long.valueOf(variables.get("itemId"))));
+
+        FilterRegistrationBean<PageCacheFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/validation/*", "/form/*");
+        return registration;
+    }
+}
@@ -0,0 +1,26 @@
+package hello.springcoremvc22.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * reactive JSON API ( /validation/api/reactive/items ) 설정
+ */
+@Configuration
+public class ReactiveConfig {
+    /**
+     * 본문 변환 + 검증을 처리하는 스레드 ( 요청 스레드는 바로 반환된다. )
+     * - threads 개까지만 만들고, 대기 작업이 queue-size 를 넘으면 거절한다. ( 무한정 쌓이지 않는다. )
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler itemValidationScheduler(
+            @Value("${item.reactive.validation-threads:0}") int threads,
+            @Value("${item.reactive.queue-size:10000}") int queueSize
+    ) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(size, queueSize, "item-validation");
+    }
+}
@@ -0,0 +1,31 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.dto.item.ItemSaveDto;
+import hello.springcoremvc22.dto.item.ItemUpdateDto;
+import hello.springcoremvc22.validation.CompiledBeanValidator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+@Configuration
+public class ValidationConfig {
+    /**
+     * DTO 검증 시 미리 컴파일한 제약 조건으로 먼저 검사
+     * - validation.compiled.enabled=false 면 항상 원래 Bean Validation 만 사용
+     * - 실패하면 MVC 검증기 ( mvcValidator ) 로 다시 검증한다.
+     *   => ConstraintValidatorFactory ( 빈 주입 ) / 메시지 보간이 @Validated 와 같다.
+     */
+    @Bean
+    public CompiledBeanValidator compiledBeanValidator(
+            @Qualifier("mvcValidator") Validator mvcValidator,
+            @Value("${validation.compiled.enabled:true}") boolean enabled
+    ) {
+        if (!(mvcValidator instanceof SpringValidatorAdapter delegate)) {
+            throw new IllegalStateException("mvcValidator is not a Bean Validation adapter: " + mvcValidator.getClass());
+        }
+        return new CompiledBeanValidator(delegate, enabled, ItemSaveDto.class, ItemUpdateDto.class);
+    }
+}
@@ -0,0 +1,23 @@
+package hello.springcoremvc22.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * 가상 스레드 요청 처리 ( spring.threads.virtual.enabled=true, 기본 false )
+ * - Tomcat 의 요청 스레드 풀 ( 기본 최대 200 ) 을 요청마다 가상 스레드를 만드는 executor 로 바꾼다.
+ *   => 로그 동기화 같은 blocking I/O 를 기다리는 요청이 스레드 풀을 다 차지하지 않는다.
+ * - Boot 3.2 의 같은 이름 설정과 맞춰 두었다. ( 3.2 로 올리면 이 설정은 지워도 된다. )
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutorCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
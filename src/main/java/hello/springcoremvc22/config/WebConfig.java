@@ -0,0 +1,39 @@
+package hello.springcoremvc22.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.config.annotation.DelegatingWebMvcConfiguration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * MVC 설정 진입점
+ * - 자동 설정 ( WebMvcAutoConfiguration ) 을 쓰지 않는다. => 각 설정의 WebMvcConfigurer ( Locale, Asset, Metrics ) 를 여기서 모은다.
+ * - RequestMappingHandlerAdapter 는 WebMvcRegistrations 빈이 있으면 그 어댑터 ( 없으면 기본 )
+ */
+@Configuration
+@Import(LocaleConfig.class)
+public class WebConfig extends DelegatingWebMvcConfiguration {
+
+    /**
+     * localeResolver 는 LocaleConfig 가 등록한다. ( 같은 이름의 기본 빈을 만들지 않는다. )
+     * - @Import 로 LocaleConfig 의 빈이 먼저 등록된다.
+     */
+    @Bean
+    @Override
+    @ConditionalOnMissingBean(name = DispatcherServlet.LOCALE_RESOLVER_BEAN_NAME)
+    public LocaleResolver localeResolver() {
+        return super.localeResolver();
+    }
+
+    @Override
+    protected RequestMappingHandlerAdapter createRequestMappingHandlerAdapter() {
+        WebMvcRegistrations registrations = getApplicationContext().getBeanProvider(WebMvcRegistrations.class).getIfAvailable();
+        RequestMappingHandlerAdapter adapter = registrations == null ? null : registrations.getRequestMappingHandlerAdapter();
+        return adapter != null ? adapter : super.createRequestMappingHandlerAdapter();
+    }
+}
@@ -0,0 +1,741 @@
+package hello.springcoremvc22.domain.item;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 컬럼 기반 저장 ( 대용량 카탈로그용 )
+ *
+ * - 상품 하나 = 행 하나 ( 39 byte ), 청크 ( CHUNK_ROWS 행 ) 마다 ByteBuffer 하나에 컬럼별로 모아 둔다.
+ *   price / quantity / itemName: int, version / lastModified: long,
+ *   regions: 지역 비트셋 ( long, 최대 64 종류 ), itemType / deliveryCode: byte 서수, open 및 null 여부: 플래그 byte
+ * - itemName, 지역, 배송 방식은 사전 인코딩 ( 문자열은 사전에 한 번만 둔다. )
+ * - offHeap 이면 청크를 direct buffer 로 만든다. => 상품 수와 상관없이 GC 가 따라갈 객체가 거의 없다.
+ *
+ * 조회 결과는 행을 가리키는 flyweight 뷰 ( Item 을 상속, 읽기 전용 ) 라서 컨트롤러 / 템플릿은 그대로 쓴다.
+ * 검색은 인덱스 없이 컬럼을 순서대로 훑는다. ( 뷰는 조건에 맞는 행만 만든다. )
+ *
+ * 행은 한 번 쓰면 바꾸지 않는다.
+ * - 수정은 새 행을 쓰고 id -> 행 매핑만 바꾼다. => 뷰가 반쯤 바뀐 상품을 보는 일이 없다.
+ * - 행이 capacity 만큼 차면 살아 있는 행만 새 세대로 옮긴다. ( compact, 이때만 쓰기를 잠시 막는다. )
+ *   이전 세대를 가리키는 뷰는 그대로 유효하다.
+ */
+public class ColumnarItemStorage implements ItemStorage {
+    static final int CHUNK_SHIFT = 14;
+    static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+
+    // 청크 안의 컬럼 시작 위치 ( 컬럼마다 CHUNK_ROWS 개 )
+    private static final int PRICE = 0;
+    private static final int QUANTITY = PRICE + Integer.BYTES * CHUNK_ROWS;
+    private static final int NAME = QUANTITY + Integer.BYTES * CHUNK_ROWS;
+    private static final int VERSION = NAME + Integer.BYTES * CHUNK_ROWS;
+    private static final int MODIFIED = VERSION + Long.BYTES * CHUNK_ROWS;
+    private static final int REGIONS = MODIFIED + Long.BYTES * CHUNK_ROWS;
+    private static final int TYPE = REGIONS + Long.BYTES * CHUNK_ROWS;
+    private static final int DELIVERY = TYPE + CHUNK_ROWS;
+    private static final int FLAGS = DELIVERY + CHUNK_ROWS;
+    private static final int CHUNK_BYTES = FLAGS + CHUNK_ROWS;
+
+    private static final byte OPEN = 1;
+    private static final byte OPEN_NULL = 1 << 1;
+    private static final byte REGIONS_NULL = 1 << 2;
+    private static final byte PRICE_NULL = 1 << 3;
+    private static final byte QUANTITY_NULL = 1 << 4;
+
+    private static final ItemType[] ITEM_TYPES = ItemType.values();
+
+    private final int capacity;
+    private final boolean offHeap;
+
+    /**
+     * 쓰기 ( put / replace ) 는 읽기 잠금, compact / clear 는 쓰기 잠금
+     * => 쓰기끼리는 막지 않고, 세대를 바꾸는 동안에만 쓰기를 멈춘다.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Generation current;
+
+    /**
+     * @param capacity 최대 상품 수 ( = 최대 id, 한 세대의 최대 행 수 )
+     * @param offHeap  청크를 direct buffer 로 만들지 여부
+     */
+    public ColumnarItemStorage(int capacity, boolean offHeap) {
+        this.capacity = Math.max(capacity, 1);
+        this.offHeap = offHeap;
+        this.current = new Generation();
+    }
+
+    @Override
+    public Item get(Long id) {
+        Generation generation = current;
+        int row = generation.rowOf(id);
+        return row < 0 ? null : generation.view(id, row);
+    }
+
+    /**
+     * id 가 capacity 를 넘거나, 지역 ( 64 ) / 배송 방식 ( 255 ) 사전이 가득 차면 IllegalStateException
+     * - 새 문자열은 이때 사전에 넣어 둔다. => 확인한 뒤 다른 쓰기가 사전을 채워도 put 은 실패하지 않는다.
+     *   ( compact 한 새 세대의 사전은 이전 사전의 일부라 자리가 남는다. )
+     */
+    @Override
+    public void checkWritable(Item item) {
+        checkId(item.getId());
+        lock.readLock().lock();
+        try {
+            current.reserve(item);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Item item) {
+        long id = item.getId();
+        checkId(id);
+
+        while (true) {
+            lock.readLock().lock();
+            try {
+                Generation generation = current;
+                int row = generation.nextRow.getAndIncrement();
+                if (row < capacity) {
+                    generation.write(row, item);
+                    generation.publish(id, row);
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            compact();
+        }
+    }
+
+    private void checkId(long id) {
+        if (id < 1 || id > capacity) {
+            throw new IllegalStateException("상품 id 가 capacity 를 넘었습니다. id = " + id + ", capacity = " + capacity);
+        }
+    }
+
+    /**
+     * 새 행을 쓰고 매핑을 바꾼다. ( 이전 행은 다음 compact 에서 정리 )
+     */
+    @Override
+    public void replace(Item current, Item item) {
+        put(item);
+    }
+
+    @Override
+    public Iterator<Item> iterator(Long cursor) {
+        return new RowIterator(current, Filter.ALL, cursor);
+    }
+
+    @Override
+    public Iterator<Item> iterator(ItemSearchCond cond, Long cursor) {
+        Generation generation = current;
+        Filter filter = generation.filter(
+                cond.getItemType(),
+                cond.hasRegion() ? cond.getRegion() : null,
+                cond.hasDeliveryCode() ? cond.getDeliveryCode() : null,
+                cond.getOpen(),
+                cond.hasPriceRange(), cond.getMinPrice(), cond.getMaxPrice()
+        );
+        return new RowIterator(generation, filter, cursor);
+    }
+
+    @Override
+    public Spliterator<Item> spliterator() {
+        Generation generation = current;
+        return new RowSpliterator(generation, 1, generation.maxId.get() + 1);
+    }
+
+    @Override
+    public List<Item> findByType(ItemType itemType) {
+        return find(current.filter(itemType, null, null, null, false, null, null));
+    }
+
+    @Override
+    public List<Item> findByRegion(String region) {
+        return find(current.filter(null, region, null, null, false, null, null));
+    }
+
+    @Override
+    public List<Item> findByDeliveryCode(String deliveryCode) {
+        return find(current.filter(null, null, deliveryCode, null, false, null, null));
+    }
+
+    @Override
+    public List<Item> findOpen() {
+        return find(current.filter(null, null, null, true, false, null, null));
+    }
+
+    @Override
+    public List<Item> findByPriceBetween(Integer minPrice, Integer maxPrice) {
+        return find(current.filter(null, null, null, null, true, minPrice, maxPrice));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return current.live.get() == 0;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            current = new Generation();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 살아 있는 행만 새 세대로 옮긴다. ( 사전도 새로 만들어서 쓰이지 않는 문자열을 버린다. )
+     * - 옮긴 뒤에도 남는 행이 없으면 IllegalStateException
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            Generation old = current;
+            if (old.nextRow.get() < capacity && old.dead.get() == 0) {
+                return;
+            }
+            Generation generation = new Generation();
+            long maxId = old.maxId.get();
+            for (long id = 1; id <= maxId; id++) {
+                int row = old.rowOf(id);
+                if (row >= 0) {
+                    int newRow = generation.nextRow.getAndIncrement();
+                    generation.write(newRow, old.view(id, row));
+                    generation.publish(id, newRow);
+                }
+            }
+            if (generation.nextRow.get() >= capacity) {
+                throw new IllegalStateException("저장 공간이 부족합니다. capacity = " + capacity);
+            }
+            current = generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 청크를 만든 만큼의 메모리 ( 사전 제외 )
+     */
+    public long allocatedBytes() {
+        return (long) current.allocatedChunks.get() * CHUNK_BYTES;
+    }
+
+    private List<Item> find(Filter filter) {
+        List<Item> items = new ArrayList<>();
+        new RowIterator(current, filter, null).forEachRemaining(items::add);
+        return items;
+    }
+
+    /**
+     * 한 세대의 컬럼 + id -> 행 매핑 + 사전
+     * - 행 번호는 세대 안에서 한 번만 쓰이고 ( append-only ), 매핑은 volatile 로 발행한다.
+     *   => 매핑으로 찾은 행은 다 쓴 뒤의 값만 보인다.
+     */
+    private final class Generation {
+        final AtomicReferenceArray<ByteBuffer> chunks = new AtomicReferenceArray<>(chunkCount(capacity));
+        final AtomicReferenceArray<AtomicIntegerArray> rows = new AtomicReferenceArray<>(chunkCount(capacity + 1));
+        final AtomicInteger allocatedChunks = new AtomicInteger();
+        final AtomicInteger nextRow = new AtomicInteger();
+        final AtomicLong maxId = new AtomicLong();
+        final AtomicInteger live = new AtomicInteger();
+        final AtomicInteger dead = new AtomicInteger();
+
+        final Dictionary names = new Dictionary("itemName", Integer.MAX_VALUE);
+        final Dictionary regions = new Dictionary("regions", Long.SIZE);
+        final Dictionary deliveryCodes = new Dictionary("deliveryCode", 255);
+
+        /**
+         * item 의 문자열을 사전에 미리 넣는다. ( 가득 차면 IllegalStateException )
+         */
+        void reserve(Item item) {
+            if (item.getItemName() != null) {
+                names.encode(item.getItemName());
+            }
+            if (item.getRegions() != null) {
+                for (String region : item.getRegions()) {
+                    regions.encode(region);
+                }
+            }
+            if (item.getDeliveryCode() != null) {
+                deliveryCodes.encode(item.getDeliveryCode());
+            }
+        }
+
+        void write(int row, Item item) {
+            ByteBuffer chunk = chunk(row);
+            int r = row & CHUNK_MASK;
+            byte flags = 0;
+
+            if (item.getPrice() == null) {
+                flags |= PRICE_NULL;
+            } else {
+                chunk.putInt(PRICE + r * Integer.BYTES, item.getPrice());
+            }
+            if (item.getQuantity() == null) {
+                flags |= QUANTITY_NULL;
+            } else {
+                chunk.putInt(QUANTITY + r * Integer.BYTES, item.getQuantity());
+            }
+            chunk.putInt(NAME + r * Integer.BYTES, item.getItemName() == null ? -1 : names.encode(item.getItemName()));
+            chunk.putLong(VERSION + r * Long.BYTES, item.getVersion() == null ? 0 : item.getVersion());
+            chunk.putLong(MODIFIED + r * Long.BYTES,
+                    item.getLastModified() == null ? Long.MIN_VALUE : item.getLastModified().toEpochMilli());
+
+            long regionBits = 0;
+            if (item.getRegions() == null) {
+                flags |= REGIONS_NULL;
+            } else {
+                for (String region : item.getRegions()) {
+                    regionBits |= 1L << regions.encode(region);
+                }
+            }
+            chunk.putLong(REGIONS + r * Long.BYTES, regionBits);
+
+            chunk.put(TYPE + r, (byte) (item.getItemType() == null ? 0 : item.getItemType().ordinal() + 1));
+            chunk.put(DELIVERY + r, (byte) (item.getDeliveryCode() == null ? 0 : deliveryCodes.encode(item.getDeliveryCode()) + 1));
+
+            if (item.getOpen() == null) {
+                flags |= OPEN_NULL;
+            } else if (item.getOpen()) {
+                flags |= OPEN;
+            }
+            chunk.put(FLAGS + r, flags);
+        }
+
+        /**
+         * id -> 행 매핑 발행 ( 이전 행이 있으면 죽은 행으로 센다. )
+         */
+        void publish(long id, int row) {
+            int index = (int) (id >>> CHUNK_SHIFT);
+            AtomicIntegerArray ids = rows.get(index);
+            if (ids == null) {
+                rows.compareAndSet(index, null, new AtomicIntegerArray(CHUNK_ROWS));
+                ids = rows.get(index);
+            }
+            int previous = ids.getAndSet((int) (id & CHUNK_MASK), row + 1);
+            if (previous == 0) {
+                live.incrementAndGet();
+            } else {
+                dead.incrementAndGet();
+            }
+            maxId.accumulateAndGet(id, Math::max);
+        }
+
+        /**
+         * @return 행 번호 ( 없으면 -1 )
+         */
+        int rowOf(long id) {
+            if (id < 1 || id > capacity) {
+                return -1;
+            }
+            AtomicIntegerArray ids = rows.get((int) (id >>> CHUNK_SHIFT));
+            return ids == null ? -1 : ids.get((int) (id & CHUNK_MASK)) - 1;
+        }
+
+        ByteBuffer chunk(int row) {
+            int index = row >>> CHUNK_SHIFT;
+            ByteBuffer chunk = chunks.get(index);
+            if (chunk == null) {
+                ByteBuffer created = offHeap ? ByteBuffer.allocateDirect(CHUNK_BYTES) : ByteBuffer.allocate(CHUNK_BYTES);
+                created.order(ByteOrder.nativeOrder());
+                if (chunks.compareAndSet(index, null, created)) {
+                    allocatedChunks.incrementAndGet();
+                }
+                chunk = chunks.get(index);
+            }
+            return chunk;
+        }
+
+        View view(long id, int row) {
+            return new View(this, id, chunks.get(row >>> CHUNK_SHIFT), row & CHUNK_MASK);
+        }
+
+        /**
+         * 검색 조건을 컬럼 값 ( 서수 / 비트 ) 으로 바꿔 둔다.
+         * - 사전에 없는 지역 / 배송 방식이거나 가격 범위가 비어 있으면 ( min > max ) 결과가 없다.
+         */
+        Filter filter(
+                ItemType itemType, String region, String deliveryCode, Boolean open,
+                boolean priceRange, Integer minPrice, Integer maxPrice
+        ) {
+            int regionId = region == null ? -1 : regions.find(region);
+            int deliveryId = deliveryCode == null ? -1 : deliveryCodes.find(deliveryCode);
+            if ((region != null && regionId < 0) || (deliveryCode != null && deliveryId < 0)
+                    || (minPrice != null && maxPrice != null && minPrice > maxPrice)) {
+                return Filter.NONE;
+            }
+            return new Filter(
+                    itemType == null ? -1 : itemType.ordinal() + 1,
+                    regionId < 0 ? 0 : 1L << regionId,
+                    deliveryId < 0 ? -1 : deliveryId + 1,
+                    open, priceRange,
+                    minPrice == null ? Integer.MIN_VALUE : minPrice,
+                    maxPrice == null ? Integer.MAX_VALUE : maxPrice
+            );
+        }
+
+        boolean matches(ByteBuffer chunk, int r, Filter filter) {
+            if (filter.itemType >= 0 && chunk.get(TYPE + r) != filter.itemType) {
+                return false;
+            }
+            if (filter.regionBit != 0 && (chunk.getLong(REGIONS + r * Long.BYTES) & filter.regionBit) == 0) {
+                return false;
+            }
+            if (filter.deliveryCode >= 0 && (chunk.get(DELIVERY + r) & 0xFF) != filter.deliveryCode) {
+                return false;
+            }
+            byte flags = chunk.get(FLAGS + r);
+            if (filter.open != null && filter.open != ((flags & OPEN) != 0)) {
+                return false;
+            }
+            if (filter.priceRange) {
+                if ((flags & PRICE_NULL) != 0) {
+                    return false;
+                }
+                int price = chunk.getInt(PRICE + r * Integer.BYTES);
+                return price >= filter.minPrice && price <= filter.maxPrice;
+            }
+            return true;
+        }
+    }
+
+    private static int chunkCount(int rows) {
+        return (rows + CHUNK_ROWS - 1) >>> CHUNK_SHIFT;
+    }
+
+    /**
+     * 컬럼 값으로 바꾼 검색 조건 ( -1 / 0 / null 은 조건 없음 )
+     * - NONE 은 빈 가격 범위 ( min > max ) 라서 ALL 과 값으로도 다르고, matches 도 모두 거른다.
+     */
+    private record Filter(
+            int itemType, long regionBit, int deliveryCode, Boolean open,
+            boolean priceRange, int minPrice, int maxPrice
+    ) {
+        static final Filter ALL = new Filter(-1, 0, -1, null, false, 0, 0);
+        static final Filter NONE = new Filter(-1, 0, -1, null, true, 1, 0);
+
+        boolean matchesAll() {
+            return equals(ALL);
+        }
+
+        boolean matchesNone() {
+            return priceRange && minPrice > maxPrice;
+        }
+    }
+
+    /**
+     * id 오름차순으로 행을 훑으면서 조건에 맞는 행의 뷰를 만든다.
+     * - 만들 때의 최대 id 까지만 본다. ( weakly consistent )
+     */
+    private static final class RowIterator implements Iterator<Item> {
+        private final Generation generation;
+        private final Filter filter;
+        private final long maxId;
+        private long id;
+        private Item next;
+
+        RowIterator(Generation generation, Filter filter, Long cursor) {
+            this.generation = generation;
+            this.filter = filter;
+            this.maxId = filter.matchesNone() ? 0 : generation.maxId.get();
+            this.id = cursor == null ? 0 : Math.max(cursor, 0);
+            this.next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Item next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Item item = next;
+            next = advance();
+            return item;
+        }
+
+        private Item advance() {
+            while (id < maxId) {
+                id++;
+                int row = generation.rowOf(id);
+                if (row < 0) {
+                    continue;
+                }
+                ByteBuffer chunk = generation.chunks.get(row >>> CHUNK_SHIFT);
+                if (filter.matchesAll() || generation.matches(chunk, row & CHUNK_MASK, filter)) {
+                    return new View(generation, id, chunk, row & CHUNK_MASK);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * id 구간 [from, to) 을 반으로 나누며 훑는다. ( 만들 때의 세대 / 최대 id 기준 )
+     */
+    private static final class RowSpliterator implements Spliterator<Item> {
+        private static final int MIN_SPLIT = 1024;
+
+        private final Generation generation;
+        private long from;
+        private final long to;
+
+        RowSpliterator(Generation generation, long from, long to) {
+            this.generation = generation;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            while (from < to) {
+                long id = from++;
+                int row = generation.rowOf(id);
+                if (row >= 0) {
+                    action.accept(generation.view(id, row));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<Item> trySplit() {
+            long size = to - from;
+            if (size < MIN_SPLIT * 2) {
+                return null;
+            }
+            long middle = from + size / 2;
+            RowSpliterator prefix = new RowSpliterator(generation, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | CONCURRENT;
+        }
+    }
+
+    /**
+     * 문자열 <-> 번호 사전 ( 번호는 0 부터, 지우지 않는다. )
+     * - 조회는 잠금 없이, 추가만 동기화한다.
+     */
+    private static final class Dictionary {
+        private final String name;
+        private final int limit;
+        private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[16];
+        private int size;
+
+        Dictionary(String name, int limit) {
+            this.name = name;
+            this.limit = limit;
+        }
+
+        int encode(String value) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            synchronized (this) {
+                id = ids.get(value);
+                if (id != null) {
+                    return id;
+                }
+                if (size == limit) {
+                    throw new IllegalStateException(name + " 는 최대 " + limit + " 종류까지 저장할 수 있습니다.");
+                }
+                String[] current = values;
+                if (size == current.length) {
+                    current = Arrays.copyOf(current, current.length * 2);
+                }
+                current[size] = value;
+                values = current;
+                ids.put(value, size);
+                return size++;
+            }
+        }
+
+        int find(String value) {
+            Integer id = ids.get(value);
+            return id == null ? -1 : id;
+        }
+
+        String decode(int id) {
+            return values[id];
+        }
+    }
+
+    /**
+     * 행 하나를 가리키는 읽기 전용 상품
+     * - 값은 꺼낼 때마다 컬럼에서 읽는다. ( 행은 바뀌지 않으므로 항상 같은 값 )
+     */
+    private static final class View extends Item {
+        private final Generation generation;
+        private final long id;
+        private final ByteBuffer chunk;
+        private final int r;
+
+        View(Generation generation, long id, ByteBuffer chunk, int r) {
+            this.generation = generation;
+            this.id = id;
+            this.chunk = chunk;
+            this.r = r;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getItemName() {
+            int name = chunk.getInt(NAME + r * Integer.BYTES);
+            return name < 0 ? null : generation.names.decode(name);
+        }
+
+        @Override
+        public Integer getPrice() {
+            return (flags() & PRICE_NULL) != 0 ? null : chunk.getInt(PRICE + r * Integer.BYTES);
+        }
+
+        @Override
+        public Integer getQuantity() {
+            return (flags() & QUANTITY_NULL) != 0 ? null : chunk.getInt(QUANTITY + r * Integer.BYTES);
+        }
+
+        @Override
+        public Boolean getOpen() {
+            byte flags = flags();
+            return (flags & OPEN_NULL) != 0 ? null : (flags & OPEN) != 0;
+        }
+
+        /**
+         * 사전 순서 ( 처음 저장된 순서 ) 로 반환한다. ( 중복은 하나로 )
+         */
+        @Override
+        public List<String> getRegions() {
+            if ((flags() & REGIONS_NULL) != 0) {
+                return null;
+            }
+            long bits = chunk.getLong(REGIONS + r * Long.BYTES);
+            List<String> regions = new ArrayList<>(Long.bitCount(bits));
+            while (bits != 0) {
+                regions.add(generation.regions.decode(Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+            return Collections.unmodifiableList(regions);
+        }
+
+        @Override
+        public ItemType getItemType() {
+            int type = chunk.get(TYPE + r);
+            return type == 0 ? null : ITEM_TYPES[type - 1];
+        }
+
+        @Override
+        public String getDeliveryCode() {
+            int code = chunk.get(DELIVERY + r) & 0xFF;
+            return code == 0 ? null : generation.deliveryCodes.decode(code - 1);
+        }
+
+        @Override
+        public Long getVersion() {
+            return chunk.getLong(VERSION + r * Long.BYTES);
+        }
+
+        @Override
+        public Instant getLastModified() {
+            long modified = chunk.getLong(MODIFIED + r * Long.BYTES);
+            return modified == Long.MIN_VALUE ? null : Instant.ofEpochMilli(modified);
+        }
+
+        @Override
+        public void setId(Long id) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setItemName(String itemName) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setPrice(Integer price) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setQuantity(Integer quantity) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setOpen(Boolean open) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setRegions(List<String> regions) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setItemType(ItemType itemType) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setDeliveryCode(String deliveryCode) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setVersion(Long version) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setLastModified(Instant lastModified) {
+            throw readOnly();
+        }
+
+        private byte flags() {
+            return chunk.get(FLAGS + r);
+        }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("저장소의 상품은 수정할 수 없습니다. update() 를 사용하세요.");
+        }
+    }
+}
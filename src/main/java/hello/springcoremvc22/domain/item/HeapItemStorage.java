@@ -0,0 +1,199 @@
+package hello.springcoremvc22.domain.item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 상품 객체를 복사해서 저장 ( 기본 )
+ * - 저장소는 ConcurrentSkipListMap ( lock-free, id 순으로 정렬 )
+ * - 저장할 때 복사하고, 조회할 때도 복사본을 준다. ( domain.validation.ItemRepository 와 같다. )
+ *   => 호출한 쪽이 setter 로 바꿔도 저장된 상품 / 인덱스 / 버전은 그대로다. ( 바꾸려면 ItemRepository.update )
+ * - 검색은 보조 인덱스 ( ItemIndex ) 로 가장 작은 후보 집합을 고르고, 나머지 조건은 후보에 대해서만 확인한다.
+ */
+public class HeapItemStorage implements ItemStorage {
+    private final ConcurrentNavigableMap<Long, Item> store = new ConcurrentSkipListMap<>();
+    private final ItemIndex index = new ItemIndex();
+
+    @Override
+    public Item get(Long id) {
+        Item item = store.get(id);
+        return item == null ? null : copyOf(item);
+    }
+
+    @Override
+    public void put(Item item) {
+        swap(storedCopyOf(item));
+    }
+
+    /**
+     * current 는 조회한 복사본이므로 쓰지 않는다. ( 저장된 이전 값으로 인덱스를 정리한다. )
+     */
+    @Override
+    public void replace(Item current, Item item) {
+        swap(storedCopyOf(item));
+    }
+
+    @Override
+    public Iterator<Item> iterator(Long cursor) {
+        Collection<Item> values = cursor == null ? store.values() : store.tailMap(cursor, false).values();
+        Iterator<Item> iterator = values.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                return copyOf(iterator.next());
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Item> iterator(ItemSearchCond cond, Long cursor) {
+        NavigableSet<Long> candidates = index.candidates(cond);
+        if (candidates == null && !cond.hasPriceRange() && cond.getOpen() == null) {
+            return iterator(cursor);
+        }
+
+        NavigableSet<Long> ids = candidates == null ? store.keySet() : candidates;
+        if (cursor != null) {
+            ids = ids.tailSet(cursor, false);
+        }
+        Iterator<Long> idIterator = ids.iterator();
+        return new Iterator<>() {
+            private Item next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Item next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Item item = next;
+                next = advance();
+                return item;
+            }
+
+            private Item advance() {
+                while (idIterator.hasNext()) {
+                    Item item = store.get(idIterator.next());
+                    if (item != null && cond.matches(item)) {
+                        return copyOf(item);
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * ConcurrentSkipListMap 의 spliterator 는 인덱스 층을 따라 나뉜다.
+     * - 집계 ( 읽기 전용 ) 에만 쓰므로 복사하지 않는다.
+     */
+    @Override
+    public Spliterator<Item> spliterator() {
+        return store.values().spliterator();
+    }
+
+    @Override
+    public List<Item> findByType(ItemType itemType) {
+        return findAllById(index.findByType(itemType), item -> item.getItemType() == itemType);
+    }
+
+    @Override
+    public List<Item> findByRegion(String region) {
+        return findAllById(index.findByRegion(region), item -> item.getRegions() != null && item.getRegions().contains(region));
+    }
+
+    @Override
+    public List<Item> findByDeliveryCode(String deliveryCode) {
+        return findAllById(index.findByDeliveryCode(deliveryCode), item -> deliveryCode.equals(item.getDeliveryCode()));
+    }
+
+    @Override
+    public List<Item> findOpen() {
+        return findAllById(index.findOpen(), item -> Boolean.TRUE.equals(item.getOpen()));
+    }
+
+    @Override
+    public List<Item> findByPriceBetween(Integer minPrice, Integer maxPrice) {
+        return findAllById(index.findByPriceBetween(minPrice, maxPrice), item -> item.getPrice() != null
+                && (minPrice == null || item.getPrice() >= minPrice) && (maxPrice == null || item.getPrice() <= maxPrice));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return store.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+        index.clear();
+    }
+
+    /**
+     * 수정 전 값이 남은 인덱스 항목은 저장소의 현재 값으로 다시 확인해서 거른다.
+     */
+    private List<Item> findAllById(Collection<Long> ids, Predicate<Item> matches) {
+        List<Item> items = new ArrayList<>();
+        for (Long id : ids) {
+            Item item = store.get(id);
+            if (item != null && matches.test(item)) {
+                items.add(copyOf(item));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * 새 인덱스 항목 -> 저장소 교체 -> 이전 값에만 있던 인덱스 항목 삭제 순서
+     * - 지운 뒤 넣으면 그 사이의 검색은 ( 이전 값 / 새 값 모두 조건에 맞아도 ) 상품을 놓친다.
+     * - 남아 있는 이전 값 항목은 검색이 저장소의 현재 값으로 다시 확인해서 거른다.
+     */
+    private void swap(Item saveItem) {
+        index.add(saveItem);
+        Item previous = store.put(saveItem.getId(), saveItem);
+        if (previous != null) {
+            index.removeStale(previous, saveItem);
+        }
+    }
+
+    /**
+     * 저장할 복사본 - 등록 지역 목록도 수정할 수 없는 복사본으로 ( 조회한 복사본끼리는 이 목록을 공유한다. )
+     */
+    private static Item storedCopyOf(Item item) {
+        Item copy = copyOf(item);
+        if (item.getRegions() != null) {
+            copy.setRegions(Collections.unmodifiableList(new ArrayList<>(item.getRegions())));
+        }
+        return copy;
+    }
+
+    private static Item copyOf(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        copy.setOpen(item.getOpen());
+        copy.setRegions(item.getRegions());
+        copy.setItemType(item.getItemType());
+        copy.setDeliveryCode(item.getDeliveryCode());
+        copy.setVersion(item.getVersion());
+        copy.setLastModified(item.getLastModified());
+        return copy;
+    }
+}
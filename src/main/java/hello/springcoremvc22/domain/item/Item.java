@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.Instant;
 import java.util.List;
 
 @Getter @Setter @ToString
@@ -18,6 +19,9 @@ public class Item {
     private ItemType itemType;      // 상품 종류
     private String deliveryCode;    // 배송 방식
 
+    private Long version;           // 저장소가 붙이는 버전 ( 저장 / 수정마다 증가 )
+    private Instant lastModified;   // 마지막으로 저장 / 수정된 시각
+
     public Item() {}
 
     public Item(String itemName, Integer price, Integer quantity) {
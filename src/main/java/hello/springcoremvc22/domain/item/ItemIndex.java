@@ -0,0 +1,228 @@
+package hello.springcoremvc22.domain.item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Item 보조 인덱스
+ * - 종류: EnumMap<ItemType, id 집합>
+ * - 지역, 배송 방식: 값 -> id 집합 ( 역색인 )
+ * - 판매 여부: 판매 중인 id 집합
+ * - 가격: (가격, id) 정렬 집합 => 범위 조회
+ *
+ * 모든 id 집합은 정렬된 lock-free 집합이라, 커서 기반 페이지 조회에 그대로 사용할 수 있다.
+ * 저장소가 저장 / 수정 시 add / removeStale 을 호출해서 유지한다. ( 새 항목을 먼저 넣고, 이전 항목은 나중에 지운다. )
+ */
+class ItemIndex {
+    private final Map<ItemType, Posting> byType = new EnumMap<>(ItemType.class);
+    private final ConcurrentMap<String, Posting> byRegion = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Posting> byDeliveryCode = new ConcurrentHashMap<>();
+    private final Posting open = new Posting();
+    private final NavigableSet<PriceKey> byPrice = new ConcurrentSkipListSet<>();
+
+    ItemIndex() {
+        for (ItemType itemType : ItemType.values()) {
+            byType.put(itemType, new Posting());
+        }
+    }
+
+    void add(Item item) {
+        Long id = item.getId();
+        if (item.getItemType() != null) {
+            byType.get(item.getItemType()).add(id);
+        }
+        if (item.getRegions() != null) {
+            for (String region : item.getRegions()) {
+                byRegion.computeIfAbsent(region, key -> new Posting()).add(id);
+            }
+        }
+        if (item.getDeliveryCode() != null) {
+            byDeliveryCode.computeIfAbsent(item.getDeliveryCode(), key -> new Posting()).add(id);
+        }
+        if (Boolean.TRUE.equals(item.getOpen())) {
+            open.add(id);
+        }
+        if (item.getPrice() != null) {
+            byPrice.add(new PriceKey(item.getPrice(), id));
+        }
+    }
+
+    void remove(Item item) {
+        Long id = item.getId();
+        if (item.getItemType() != null) {
+            byType.get(item.getItemType()).remove(id);
+        }
+        if (item.getRegions() != null) {
+            for (String region : item.getRegions()) {
+                Posting posting = byRegion.get(region);
+                if (posting != null) {
+                    posting.remove(id);
+                }
+            }
+        }
+        if (item.getDeliveryCode() != null) {
+            Posting posting = byDeliveryCode.get(item.getDeliveryCode());
+            if (posting != null) {
+                posting.remove(id);
+            }
+        }
+        open.remove(id);
+        if (item.getPrice() != null) {
+            byPrice.remove(new PriceKey(item.getPrice(), id));
+        }
+    }
+
+    /**
+     * 수정 후 ( add(item) 다음에 ) 이전 값에만 있던 항목을 지운다.
+     * - 새 값에도 있는 항목은 남긴다. => 수정하는 동안에도 이전 값 / 새 값 모두에 맞는 조건이면 항상 검색된다.
+     * - 남은 이전 값 항목은 저장소에서 다시 확인하는 쪽 ( 검색 ) 이 걸러 낸다.
+     */
+    void removeStale(Item previous, Item item) {
+        Long id = item.getId();
+        if (previous.getItemType() != null && previous.getItemType() != item.getItemType()) {
+            byType.get(previous.getItemType()).remove(id);
+        }
+        if (previous.getRegions() != null) {
+            for (String region : previous.getRegions()) {
+                Posting posting = byRegion.get(region);
+                if (posting != null && (item.getRegions() == null || !item.getRegions().contains(region))) {
+                    posting.remove(id);
+                }
+            }
+        }
+        if (previous.getDeliveryCode() != null && !previous.getDeliveryCode().equals(item.getDeliveryCode())) {
+            Posting posting = byDeliveryCode.get(previous.getDeliveryCode());
+            if (posting != null) {
+                posting.remove(id);
+            }
+        }
+        if (!Boolean.TRUE.equals(item.getOpen())) {
+            open.remove(id);
+        }
+        if (previous.getPrice() != null && !previous.getPrice().equals(item.getPrice())) {
+            byPrice.remove(new PriceKey(previous.getPrice(), id));
+        }
+    }
+
+    void clear() {
+        byType.values().forEach(Posting::clear);
+        byRegion.clear();
+        byDeliveryCode.clear();
+        open.clear();
+        byPrice.clear();
+    }
+
+    NavigableSet<Long> findByType(ItemType itemType) {
+        return byType.get(itemType).ids;
+    }
+
+    NavigableSet<Long> findByRegion(String region) {
+        return postingIds(byRegion.get(region));
+    }
+
+    NavigableSet<Long> findByDeliveryCode(String deliveryCode) {
+        return postingIds(byDeliveryCode.get(deliveryCode));
+    }
+
+    NavigableSet<Long> findOpen() {
+        return open.ids;
+    }
+
+    /**
+     * 가격 범위에 해당하는 id 를 id 순으로 정렬해서 반환
+     * - 가격 순 인덱스라 결과 크기만큼 정렬 비용이 든다.
+     * - minPrice > maxPrice 면 빈 집합
+     */
+    NavigableSet<Long> findByPriceBetween(Integer minPrice, Integer maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            return Collections.emptyNavigableSet();
+        }
+        PriceKey from = new PriceKey(minPrice == null ? Integer.MIN_VALUE : minPrice, Long.MIN_VALUE);
+        PriceKey to = new PriceKey(maxPrice == null ? Integer.MAX_VALUE : maxPrice, Long.MAX_VALUE);
+
+        NavigableSet<Long> ids = new TreeSet<>();
+        for (PriceKey key : byPrice.subSet(from, true, to, true)) {
+            ids.add(key.id());
+        }
+        return ids;
+    }
+
+    /**
+     * 검색 조건 중 가장 작은 인덱스 집합을 후보로 고른다.
+     * - 인덱스를 쓸 수 있는 조건이 없으면 null ( 전체 순회 )
+     * - 가격 범위는 후보로 쓰지 않는다. ( 가격 순이라 id 순 커서에 맞추려면 범위 전체를 복사 + 정렬해야 한다. )
+     *   => 저장소를 커서부터 id 순으로 훑으면서 확인하고, 페이지가 차면 멈춘다.
+     * - 가격 범위가 비어 있으면 ( minPrice > maxPrice ) 빈 집합
+     */
+    NavigableSet<Long> candidates(ItemSearchCond cond) {
+        if (cond.isEmptyPriceRange()) {
+            return Collections.emptyNavigableSet();
+        }
+
+        Posting best = null;
+        if (cond.getItemType() != null) {
+            best = smaller(best, byType.get(cond.getItemType()));
+        }
+        if (cond.hasRegion()) {
+            best = smaller(best, byRegion.getOrDefault(cond.getRegion(), Posting.EMPTY));
+        }
+        if (cond.hasDeliveryCode()) {
+            best = smaller(best, byDeliveryCode.getOrDefault(cond.getDeliveryCode(), Posting.EMPTY));
+        }
+        if (Boolean.TRUE.equals(cond.getOpen())) {
+            best = smaller(best, open);
+        }
+        return best == null ? null : best.ids;
+    }
+
+    private static Posting smaller(Posting a, Posting b) {
+        return a == null || b.size() < a.size() ? b : a;
+    }
+
+    private static NavigableSet<Long> postingIds(Posting posting) {
+        return posting == null ? Collections.emptyNavigableSet() : posting.ids;
+    }
+
+    /**
+     * id 집합 + 크기
+     * - ConcurrentSkipListSet.size() 는 O(n) 이라 크기를 따로 센다.
+     */
+    private static class Posting {
+        static final Posting EMPTY = new Posting();
+
+        final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+        final AtomicInteger size = new AtomicInteger();
+
+        void add(Long id) {
+            if (ids.add(id)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(Long id) {
+            if (ids.remove(id)) {
+                size.decrementAndGet();
+            }
+        }
+
+        void clear() {
+            ids.clear();
+            size.set(0);
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+
+    private record PriceKey(int price, long id) implements Comparable<PriceKey> {
+        @Override
+        public int compareTo(PriceKey o) {
+            int result = Integer.compare(price, o.price);
+            return result != 0 ? result : Long.compare(id, o.id);
+        }
+    }
+}
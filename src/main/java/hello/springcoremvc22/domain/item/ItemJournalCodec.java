@@ -0,0 +1,64 @@
+package hello.springcoremvc22.domain.item;
+
+import hello.springcoremvc22.domain.journal.JournalCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static hello.springcoremvc22.domain.journal.JournalCodec.*;
+
+/**
+ * [id][itemName][price][quantity][open][regions][itemType][deliveryCode]
+ * - open 은 null 을 -1 로 표현
+ * - itemType 은 이름 ( null 가능 ) => enum 순서가 바뀌어도 기록된 값은 그대로 읽힌다.
+ * - regions 는 개수 ( null 이면 -1 ) + 문자열들
+ */
+public class ItemJournalCodec implements JournalCodec<Item> {
+    @Override
+    public void write(DataOutput out, Item item) throws IOException {
+        out.writeLong(item.getId());
+        writeNullableString(out, item.getItemName());
+        writeNullableInt(out, item.getPrice());
+        writeNullableInt(out, item.getQuantity());
+
+        out.writeByte(item.getOpen() == null ? -1 : item.getOpen() ? 1 : 0);
+
+        List<String> regions = item.getRegions();
+        out.writeInt(regions == null ? -1 : regions.size());
+        if (regions != null) {
+            for (String region : regions) {
+                out.writeUTF(region);
+            }
+        }
+
+        writeNullableString(out, item.getItemType() == null ? null : item.getItemType().name());
+        writeNullableString(out, item.getDeliveryCode());
+    }
+
+    @Override
+    public Item read(DataInput in) throws IOException {
+        long id = in.readLong();
+        Item item = new Item(readNullableString(in), readNullableInt(in), readNullableInt(in));
+        item.setId(id);
+
+        byte open = in.readByte();
+        item.setOpen(open < 0 ? null : open == 1);
+
+        int regionCount = in.readInt();
+        if (regionCount >= 0) {
+            List<String> regions = new ArrayList<>(regionCount);
+            for (int i = 0; i < regionCount; i++) {
+                regions.add(in.readUTF());
+            }
+            item.setRegions(regions);
+        }
+
+        String itemType = readNullableString(in);
+        item.setItemType(itemType == null ? null : ItemType.valueOf(itemType));
+        item.setDeliveryCode(readNullableString(in));
+        return item;
+    }
+}
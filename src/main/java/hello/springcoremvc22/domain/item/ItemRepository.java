@@ -1,46 +1,275 @@
 package hello.springcoremvc22.domain.item;
 
+import hello.springcoremvc22.domain.journal.ItemJournal;
+import hello.springcoremvc22.domain.page.CursorPage;
+import hello.springcoremvc22.domain.version.ItemVersions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.StreamSupport;
 
+/**
+ * 상품 저장소 ( 인덱스 + 영속화 모드 )
+ * - 저장된 객체는 수정하지 않는다. update() 는 새 객체로 교체한다.
+ * - 저장 / 조회하는 객체는 저장된 객체와 다르다. ( heap: 복사본, columnar: 읽기 전용 뷰 ) => 조회 결과를 바꿔도 저장소는 그대로
+ * - 상품을 담아 두는 방식은 ItemStorage ( heap: 객체 그대로, columnar: 컬럼 + flyweight 뷰 )
+ */
 @Repository
 public class ItemRepository {
-    private static final Map<Long, Item> store = new HashMap<>();
-    private static long sequence = 0L;
+    private static final int LOCK_STRIPES = 64;
 
+    private final ItemStorage storage;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ItemVersions versions = new ItemVersions();
+    private final ItemJournal<Item> journal;
+    private final AtomicReference<ItemStats> stats = new AtomicReference<>();
+
+    /**
+     * 같은 상품의 수정 순서 ( = 로그 순서 ) 를 지키기 위한 줄무늬 잠금
+     * - 잠근 채로 로그 동기화 ( fsync ) 를 기다리므로 synchronized 대신 ReentrantLock
+     *   => 가상 스레드가 기다리는 동안 캐리어 스레드를 붙잡지 않는다. ( pinning X )
+     */
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ItemRepository() {
+        this((ItemJournal<Item>) null);
+    }
+
+    @Autowired
+    public ItemRepository(ObjectProvider<ItemJournal<Item>> journal, ObjectProvider<ItemStorage> storage) {
+        this(journal.getIfAvailable(), storage.getIfAvailable(HeapItemStorage::new));
+    }
+
+    public ItemRepository(ItemJournal<Item> journal) {
+        this(journal, new HeapItemStorage());
+    }
+
+    /**
+     * journal 이 있으면 ( 영속화 모드 ) 스냅샷 + 로그로 상태를 복구한다.
+     */
+    public ItemRepository(ItemJournal<Item> journal, ItemStorage storage) {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.storage = storage;
+        this.journal = journal;
+        if (journal != null) {
+            journal.open(this::restore, this::findAll);
+        }
+    }
+
+    /**
+     * 저장할 수 없는 상품 ( 저장 방식의 한도 초과 ) 은 로그에 남기기 전에 IllegalStateException
+     */
     public Item save(Item item) {
-        item.setId(++sequence);
-        store.put(item.getId(), item);
+        item.setId(sequence.incrementAndGet());
+        storage.checkWritable(item);
+        write(item, () -> {
+            ItemVersions.Stamp stamp = stamp(item);
+            storage.put(item);
+            versions.publish(item.getId(), stamp);
+        });
         return item;
     }
 
     public Item findById(Long id) {
-        return store.get(id);
+        return storage.get(id);
     }
 
     public List<Item> findAll() {
-        return new ArrayList<>(store.values());
+        List<Item> items = new ArrayList<>();
+        storage.iterator(null).forEachRemaining(items::add);
+        return items;
+    }
+
+    /**
+     * 전체를 id 순으로 순회 ( 목록을 만들지 않는다. )
+     * - 순회 중의 저장 / 수정은 반영될 수도, 안 될 수도 있다. ( weakly consistent )
+     */
+    public Iterator<Item> iterator() {
+        return storage.iterator(null);
     }
 
-    public void update(Long itemId, Item updateParam) {
-        Item findItem = findById(itemId);
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+    /**
+     * 커서 기반 페이지 조회 ( id 오름차순 )
+     * - cursor 가 null 이면 처음부터, 아니면 cursor 다음 id 부터 size 개
+     */
+    public CursorPage<Item> findPage(Long cursor, int size) {
+        return page(storage.iterator(cursor), size);
+    }
+
+    /**
+     * 검색 조건 + 커서 기반 페이지 조회
+     */
+    public CursorPage<Item> findPage(ItemSearchCond cond, Long cursor, int size) {
+        return page(storage.iterator(cond, cursor), size);
+    }
+
+    public List<Item> findByType(ItemType itemType) {
+        return storage.findByType(itemType);
+    }
+
+    public List<Item> findByRegion(String region) {
+        return storage.findByRegion(region);
+    }
+
+    public List<Item> findByDeliveryCode(String deliveryCode) {
+        return storage.findByDeliveryCode(deliveryCode);
+    }
 
-        // 추가
-        findItem.setOpen(updateParam.getOpen());
-        findItem.setRegions(updateParam.getRegions());
-        findItem.setItemType(updateParam.getItemType());
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setDeliveryCode(updateParam.getDeliveryCode());
+    public List<Item> findOpen() {
+        return storage.findOpen();
+    }
+
+    /**
+     * minPrice <= price <= maxPrice ( null 이면 제한 없음 )
+     */
+    public List<Item> findByPriceBetween(Integer minPrice, Integer maxPrice) {
+        return storage.findByPriceBetween(minPrice, maxPrice);
+    }
+
+    /**
+     * 낙관적 잠금 수정 ( compare-and-set )
+     * - updateParam.version 이 있으면 현재 버전과 같을 때만 수정한다. ( null 이면 버전 확인 X )
+     * - 저장된 객체를 수정하지 않고 새 객체로 교체한다. => 조회 중인 객체가 반쯤 바뀐 상태로 보이지 않는다.
+     * - 로그 순서와 인덱스 교체를 위해 같은 상품 ( 줄무늬 ) 의 수정끼리만 잠근다.
+     *   => 전역 잠금이 아니므로 서로 다른 상품의 수정은 동시에 진행된다.
+     *
+     * @return 없는 상품이거나 버전이 다르면 ( 그 사이 다른 요청이 수정 ) false
+     */
+    public boolean update(Long itemId, Item updateParam) {
+        ReentrantLock lock = locks[Math.floorMod(itemId, LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Item current = storage.get(itemId);
+            if (current == null || isStale(current, updateParam)) {
+                return false;
+            }
+            Item updateItem = updateRecord(itemId, updateParam);
+            storage.checkWritable(updateItem);
+            ItemVersions.Stamp stamp = stamp(updateItem);
+            write(updateItem, () -> {
+                storage.replace(current, updateItem);
+                versions.publish(itemId, stamp);
+            });
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 전체 집계 ( 재고 금액 합계, 종류 / 지역 / 배송 방식별 개수 )
+     * - 저장소를 fork/join 으로 나눠 병렬로 훑는다. ( 공용 ForkJoinPool, 코어 수만큼 )
+     * - 읽기만 하므로 저장 / 수정을 막지 않는다.
+     * - 전체 버전이 그대로면 마지막 집계를 반환한다.
+     */
+    public ItemStats stats() {
+        long version = versions.collection();
+        ItemStats cached = stats.get();
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+        // 버전을 먼저 읽었으므로 집계는 이 버전 이후의 내용이다. ( 버전보다 오래된 집계는 없다. )
+        ItemStats computed = ItemStats.collect(version, StreamSupport.stream(storage.spliterator(), true));
+        return stats.accumulateAndGet(computed, (a, b) -> a == null || b.getVersion() >= a.getVersion() ? b : a);
+    }
+
+    public boolean isEmpty() {
+        return storage.isEmpty();
+    }
+
+    /**
+     * 상품 버전 ( 없는 상품은 0 ) - 저장 / 수정될 때마다 올라간다.
+     */
+    public long version(Long itemId) {
+        return versions.of(itemId);
+    }
+
+    /**
+     * 전체 버전 - 어떤 상품이든 저장 / 수정되면 올라간다.
+     */
+    public long version() {
+        return versions.collection();
+    }
+
+    /**
+     * 전체 중 마지막으로 저장 / 수정된 시각
+     */
+    public Instant lastModified() {
+        return versions.lastModified();
     }
 
     public void clearStore() {
-        store.clear();;
+        storage.clear();
+        versions.clear();
+    }
+
+    private void write(Item record, Runnable apply) {
+        if (journal == null) {
+            apply.run();
+        } else {
+            journal.write(record, apply);
+        }
+    }
+
+    private static boolean isStale(Item current, Item updateParam) {
+        return updateParam.getVersion() != null && !updateParam.getVersion().equals(current.getVersion());
+    }
+
+    /**
+     * 수정 후의 전체 상태 ( 저장소에 넣을 새 객체 = 로그 기록 )
+     */
+    private static Item updateRecord(Long itemId, Item updateParam) {
+        Item record = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+        record.setId(itemId);
+        record.setOpen(updateParam.getOpen());
+        record.setRegions(updateParam.getRegions());
+        record.setItemType(updateParam.getItemType());
+        record.setDeliveryCode(updateParam.getDeliveryCode());
+        return record;
+    }
+
+    /**
+     * 스냅샷 / 로그에서 읽은 항목을 반영 ( 같은 id 는 나중 기록으로 덮어쓴다 )
+     */
+    private void restore(Item item) {
+        ItemVersions.Stamp stamp = stamp(item);
+        storage.put(item);
+        versions.publish(item.getId(), stamp);
+        sequence.accumulateAndGet(item.getId(), Math::max);
+    }
+
+    /**
+     * 새 버전을 발급해서 상품에 붙인다. ( 저장소에 반영한 뒤 publish )
+     */
+    private ItemVersions.Stamp stamp(Item item) {
+        ItemVersions.Stamp stamp = versions.next();
+        item.setVersion(stamp.version());
+        item.setLastModified(stamp.modifiedAt());
+        return stamp;
+    }
+
+    private static CursorPage<Item> page(Iterator<Item> values, int size) {
+        int pageSize = CursorPage.normalizeSize(size);
+        List<Item> items = new ArrayList<>(pageSize);
+        Long nextCursor = null;
+        while (values.hasNext()) {
+            Item item = values.next();
+            if (items.size() == pageSize) {
+                nextCursor = items.get(pageSize - 1).getId();
+                break;
+            }
+            items.add(item);
+        }
+        return new CursorPage<>(items, nextCursor, pageSize);
     }
 }
@@ -0,0 +1,69 @@
+package hello.springcoremvc22.domain.item;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.StringUtils;
+
+/**
+ * 상품 검색 조건
+ * - null ( 또는 빈 문자열 ) 인 조건은 무시한다.
+ */
+@Getter @Setter
+public class ItemSearchCond {
+    private ItemType itemType;
+    private String region;
+    private String deliveryCode;
+    private Boolean open;
+    private Integer minPrice;
+    private Integer maxPrice;
+
+    public boolean hasRegion() {
+        return StringUtils.hasText(region);
+    }
+
+    public boolean hasDeliveryCode() {
+        return StringUtils.hasText(deliveryCode);
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    /**
+     * minPrice > maxPrice ( 어떤 상품도 맞지 않는다. )
+     */
+    public boolean isEmptyPriceRange() {
+        return minPrice != null && maxPrice != null && minPrice > maxPrice;
+    }
+
+    /**
+     * 인덱스로 후보를 고른 뒤, 나머지 조건을 확인할 때 사용
+     */
+    public boolean matches(Item item) {
+        if (itemType != null && itemType != item.getItemType()) {
+            return false;
+        }
+        if (hasRegion() && (item.getRegions() == null || !item.getRegions().contains(region))) {
+            return false;
+        }
+        if (hasDeliveryCode() && !deliveryCode.equals(item.getDeliveryCode())) {
+            return false;
+        }
+        if (open != null && !open.equals(Boolean.TRUE.equals(item.getOpen()))) {
+            return false;
+        }
+        if (hasPriceRange()) {
+            Integer price = item.getPrice();
+            if (price == null) {
+                return false;
+            }
+            if (minPrice != null && price < minPrice) {
+                return false;
+            }
+            if (maxPrice != null && price > maxPrice) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
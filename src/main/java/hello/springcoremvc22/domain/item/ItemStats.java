@@ -0,0 +1,78 @@
+package hello.springcoremvc22.domain.item;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * 상품 전체 집계 ( 재고 금액 합계, 종류 / 지역 / 배송 방식별 개수 )
+ * - version: 집계를 시작할 때의 저장소 전체 버전 ( 같은 버전이면 캐시를 그대로 쓴다. )
+ * - totalValue: price * quantity 의 합 ( null 은 0 )
+ */
+@Getter
+public class ItemStats {
+    private final long version;
+    private final long count;
+    private final long totalValue;
+    private final Map<ItemType, Long> byType;
+    private final Map<String, Long> byRegion;
+    private final Map<String, Long> byDeliveryCode;
+
+    private ItemStats(long version, Accumulator accumulator) {
+        this.version = version;
+        this.count = accumulator.count;
+        this.totalValue = accumulator.totalValue;
+        this.byType = Collections.unmodifiableMap(accumulator.byType);
+        this.byRegion = Collections.unmodifiableMap(new TreeMap<>(accumulator.byRegion));
+        this.byDeliveryCode = Collections.unmodifiableMap(new TreeMap<>(accumulator.byDeliveryCode));
+    }
+
+    /**
+     * items 를 ( parallel 스트림이면 fork/join 으로 나눠서 ) 집계
+     * - 작업마다 따로 모은 뒤 합치므로 공유 상태 / 잠금이 없다.
+     */
+    public static ItemStats collect(long version, Stream<Item> items) {
+        return new ItemStats(version, items.collect(Accumulator::new, Accumulator::add, Accumulator::merge));
+    }
+
+    private static final class Accumulator {
+        private long count;
+        private long totalValue;
+        private final Map<ItemType, Long> byType = new EnumMap<>(ItemType.class);
+        private final Map<String, Long> byRegion = new HashMap<>();
+        private final Map<String, Long> byDeliveryCode = new HashMap<>();
+
+        void add(Item item) {
+            count++;
+            if (item.getPrice() != null && item.getQuantity() != null) {
+                totalValue += (long) item.getPrice() * item.getQuantity();
+            }
+            if (item.getItemType() != null) {
+                byType.merge(item.getItemType(), 1L, Long::sum);
+            }
+            List<String> regions = item.getRegions();
+            if (regions != null) {
+                for (String region : regions) {
+                    byRegion.merge(region, 1L, Long::sum);
+                }
+            }
+            if (item.getDeliveryCode() != null) {
+                byDeliveryCode.merge(item.getDeliveryCode(), 1L, Long::sum);
+            }
+        }
+
+        void merge(Accumulator other) {
+            count += other.count;
+            totalValue += other.totalValue;
+            other.byType.forEach((key, value) -> byType.merge(key, value, Long::sum));
+            other.byRegion.forEach((key, value) -> byRegion.merge(key, value, Long::sum));
+            other.byDeliveryCode.forEach((key, value) -> byDeliveryCode.merge(key, value, Long::sum));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package hello.springcoremvc22.domain.item;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+
+/**
+ * ItemRepository 가 상품을 담아 두는 저장 방식
+ * - heap: 상품 객체 그대로 + 보조 인덱스 ( HeapItemStorage, 기본 )
+ * - columnar: 원시 타입 컬럼 + 사전 인코딩, 조회는 flyweight 뷰 ( ColumnarItemStorage )
+ *
+ * id 발급, 버전, 로그, 수정 잠금은 ItemRepository 가 맡는다.
+ * 저장 방식은 같은 id 에 대한 put / replace 가 동시에 호출되지 않는다고 가정한다.
+ */
+public interface ItemStorage {
+    Item get(Long id);
+
+    /**
+     * put / replace 전에 ( 로그에 남기기 전에 ) 저장할 수 있는지 확인
+     * - 저장할 수 없으면 IllegalStateException
+     *   => 로그에 남은 기록은 복구할 때 다시 put 하므로, put 에서 실패할 기록을 로그에 남기면 안 된다.
+     */
+    default void checkWritable(Item item) {
+    }
+
+    /**
+     * 새 상품 저장 ( 복구 시에는 같은 id 를 덮어쓸 수 있다. )
+     */
+    void put(Item item);
+
+    /**
+     * current 를 item 으로 교체 ( 같은 id )
+     */
+    void replace(Item current, Item item);
+
+    /**
+     * id 오름차순으로 cursor 다음부터 ( null 이면 처음부터 )
+     */
+    Iterator<Item> iterator(Long cursor);
+
+    /**
+     * 검색 조건에 맞는 상품만 id 오름차순으로 cursor 다음부터
+     */
+    Iterator<Item> iterator(ItemSearchCond cond, Long cursor);
+
+    /**
+     * 전체 상품 ( parallel 스트림 / fork-join 집계용, 나눠서 훑을 수 있다. )
+     * - 잠금 없이 읽는다. 훑는 중의 저장 / 수정은 반영될 수도, 안 될 수도 있다. ( weakly consistent )
+     */
+    Spliterator<Item> spliterator();
+
+    List<Item> findByType(ItemType itemType);
+
+    List<Item> findByRegion(String region);
+
+    List<Item> findByDeliveryCode(String deliveryCode);
+
+    List<Item> findOpen();
+
+    /**
+     * minPrice <= price <= maxPrice ( null 이면 제한 없음 )
+     */
+    List<Item> findByPriceBetween(Integer minPrice, Integer maxPrice);
+
+    boolean isEmpty();
+
+    void clear();
+}
@@ -0,0 +1,28 @@
+package hello.springcoremvc22.domain.item;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * item.storage.* 설정
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "item.storage")
+public class ItemStorageProperties {
+    private Mode mode = Mode.HEAP;
+
+    /**
+     * columnar: 청크를 heap 밖 ( direct buffer ) 에 둘지 여부
+     */
+    private boolean offHeap = false;
+
+    /**
+     * columnar: 최대 상품 수 ( 넘으면 저장 시 IllegalStateException )
+     */
+    private int capacity = 1_000_000;
+
+    public enum Mode {
+        HEAP, COLUMNAR
+    }
+}
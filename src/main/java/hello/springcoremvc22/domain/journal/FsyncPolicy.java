@@ -0,0 +1,21 @@
+package hello.springcoremvc22.domain.journal;
+
+/**
+ * 로그 기록 후 디스크 동기화(fsync) 정책
+ */
+public enum FsyncPolicy {
+    /**
+     * 기록마다 쓰는 스레드가 직접 동기화 - 가장 안전하고 가장 느리다.
+     */
+    ALWAYS,
+
+    /**
+     * 그룹 커밋 - 전용 스레드가 쌓인 기록을 한 번에 동기화하고, 쓰는 스레드는 완료될 때까지 기다린다.
+     */
+    GROUP,
+
+    /**
+     * 동기화하지 않음 - OS 가 페이지 캐시를 내려쓸 때까지 유실될 수 있다.
+     */
+    NONE
+}
@@ -0,0 +1,321 @@
+package hello.springcoremvc22.domain.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 저장소 하나의 로그 + 스냅샷
+ *
+ * 파일 ( directory 아래 )
+ * - {name}-{epoch}.log: 추가 전용 로그, 스냅샷을 만들 때마다 epoch 를 올려 새 파일로 교체한다.
+ * - {name}.snapshot: epoch 직전까지의 전체 상태 ( [MAGIC][epoch][count][항목...][crc] )
+ *
+ * 기록은 항상 변경 후의 전체 상태이므로 같은 기록을 여러 번 재생해도 결과가 같다.
+ * 시작할 때 스냅샷을 읽고, 스냅샷의 epoch 이상인 로그를 순서대로 재생해서 복구한다.
+ */
+@Slf4j
+public class ItemJournal<T> implements Closeable {
+    static final int SNAPSHOT_MAGIC = 0x4954534e; // "ITSN"
+
+    private final String name;
+    private final JournalCodec<T> codec;
+    private final JournalProperties properties;
+    private final Path directory;
+
+    /**
+     * 쓰기(append + 반영)는 read lock, 로그 교체는 write lock
+     * => 교체 후 읽은 상태에는 이전 로그의 기록이 모두 반영되어 있다.
+     */
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final Object checkpointLock = new Object();
+    private final AtomicInteger sinceCheckpoint = new AtomicInteger();
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+    private final ExecutorService checkpointExecutor;
+
+    private Supplier<? extends Collection<T>> state;
+    private volatile MappedLog current;
+
+    public ItemJournal(String name, JournalCodec<T> codec, JournalProperties properties) {
+        this.name = name;
+        this.codec = codec;
+        this.properties = properties;
+        this.directory = properties.getDirectory();
+        this.checkpointExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-journal-checkpoint-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 스냅샷 + 로그로 상태를 복구하고, 새 로그를 열어 쓰기를 준비한다.
+     *
+     * @param restore 복구한 항목을 저장소에 반영
+     * @param state   스냅샷을 만들 때 저장소의 현재 상태를 반환
+     */
+    public void open(Consumer<T> restore, Supplier<? extends Collection<T>> state) {
+        this.state = state;
+        try {
+            Files.createDirectories(directory);
+
+            long fromEpoch = readSnapshot(restore);
+            long lastEpoch = fromEpoch - 1;
+            int replayed = 0;
+            for (Path logPath : logPaths()) {
+                long epoch = epochOf(logPath);
+                if (epoch < fromEpoch) {
+                    Files.delete(logPath);
+                    continue;
+                }
+                List<T> records = new ArrayList<>();
+                MappedLog.replay(logPath, payload -> records.add(decode(payload)));
+                records.forEach(restore);
+                replayed += records.size();
+                lastEpoch = Math.max(lastEpoch, epoch);
+            }
+
+            current = createLog(lastEpoch + 1);
+            log.info("journal [{}] recovered: snapshot epoch = {}, replayed records = {}", name, fromEpoch, replayed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 기록을 로그에 추가하고 apply 로 저장소에 반영한 뒤, FsyncPolicy 에 맞게 동기화될 때까지 기다린다.
+     * - 같은 항목에 대한 write 는 호출하는 쪽에서 순서를 보장해야 한다. ( 로그 순서 = 반영 순서 )
+     */
+    public void write(T record, Runnable apply) {
+        byte[] payload = encode(record);
+
+        MappedLog target;
+        int position;
+        rotationLock.readLock().lock();
+        try {
+            target = current;
+            position = target.append(payload);
+            apply.run();
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+
+        target.sync(position);
+
+        if (sinceCheckpoint.incrementAndGet() >= properties.getSnapshotEvery()) {
+            scheduleCheckpoint();
+        }
+    }
+
+    /**
+     * 여러 기록을 한 번에 추가하고 반영한 뒤, 마지막 기록까지 한 번만 동기화한다.
+     * - 일괄 저장에서 기록마다 fsync 를 기다리지 않기 위해 사용
+     */
+    public void writeAll(Collection<T> records, Runnable apply) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<byte[]> payloads = new ArrayList<>(records.size());
+        for (T record : records) {
+            payloads.add(encode(record));
+        }
+
+        MappedLog target;
+        int position = 0;
+        rotationLock.readLock().lock();
+        try {
+            target = current;
+            for (byte[] payload : payloads) {
+                position = target.append(payload);
+            }
+            apply.run();
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+
+        target.sync(position);
+
+        if (sinceCheckpoint.addAndGet(records.size()) >= properties.getSnapshotEvery()) {
+            scheduleCheckpoint();
+        }
+    }
+
+    /**
+     * 로그를 새 epoch 로 교체하고, 현재 상태를 스냅샷으로 남긴 뒤 이전 로그를 지운다.
+     * - 쓰기는 로그 교체 순간에만 잠깐 멈춘다.
+     */
+    public void checkpoint() {
+        synchronized (checkpointLock) {
+            MappedLog previous;
+            rotationLock.writeLock().lock();
+            try {
+                previous = current;
+                current = createLog(previous.epoch() + 1);
+                sinceCheckpoint.set(0);
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+
+            previous.forceAll();
+            writeSnapshot(current.epoch(), state.get());
+            previous.close();
+            try {
+                Files.deleteIfExists(previous.path());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        checkpointExecutor.shutdown();
+        try {
+            checkpointExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void scheduleCheckpoint() {
+        if (!checkpointScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        checkpointExecutor.execute(() -> {
+            try {
+                checkpoint();
+            } catch (RuntimeException e) {
+                log.warn("journal [{}] checkpoint failed", name, e);
+            } finally {
+                checkpointScheduled.set(false);
+            }
+        });
+    }
+
+    private MappedLog createLog(long epoch) {
+        return MappedLog.create(directory.resolve(String.format("%s-%012d.log", name, epoch)), epoch,
+                properties.getLogSize(), properties.getFsyncPolicy(), properties.getGroupCommitDelay());
+    }
+
+    private List<Path> logPaths() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, name + "-*.log")) {
+            stream.forEach(paths::add);
+        }
+        paths.sort(null);
+        return paths;
+    }
+
+    private long epochOf(Path logPath) {
+        String fileName = logPath.getFileName().toString();
+        return Long.parseLong(fileName.substring(name.length() + 1, fileName.length() - ".log".length()));
+    }
+
+    private Path snapshotPath() {
+        return directory.resolve(name + ".snapshot");
+    }
+
+    /**
+     * 임시 파일에 쓰고 동기화한 뒤 원자적으로 교체한다.
+     */
+    private void writeSnapshot(long epoch, Collection<T> items) {
+        Path tmp = directory.resolve(name + ".snapshot.tmp");
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(epoch);
+            out.writeInt(items.size());
+            for (T item : items) {
+                codec.write(out, item);
+            }
+            out.flush();
+            long checksum = crc.getValue();
+            out.writeLong(checksum);
+            out.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            Files.move(tmp, snapshotPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 스냅샷의 epoch ( 이 epoch 이상의 로그를 재생해야 한다 ), 스냅샷이 없으면 0
+     */
+    private long readSnapshot(Consumer<T> restore) throws IOException {
+        Path path = snapshotPath();
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 64 * 1024), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("not a snapshot file: " + path);
+            }
+            long epoch = in.readLong();
+            int count = in.readInt();
+            List<T> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(codec.read(in));
+            }
+            long checksum = crc.getValue();
+            if (in.readLong() != checksum) {
+                throw new IOException("snapshot checksum mismatch: " + path);
+            }
+            items.forEach(restore);
+            return epoch;
+        }
+    }
+
+    private byte[] encode(T record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            codec.write(new DataOutputStream(bytes), record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private T decode(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        try {
+            return codec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package hello.springcoremvc22.domain.journal;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * item.journal.* 설정
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "item.journal")
+public class JournalProperties {
+    /**
+     * 영속화 모드 사용 여부
+     */
+    private boolean enabled = false;
+
+    /**
+     * 로그 / 스냅샷 파일을 둘 디렉토리
+     */
+    private Path directory = Path.of("data", "journal");
+
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.GROUP;
+
+    /**
+     * GROUP 정책에서 동기화 전에 기록을 더 모으기 위해 기다리는 시간
+     */
+    private Duration groupCommitDelay = Duration.ZERO;
+
+    /**
+     * 로그 파일을 처음 매핑하는 크기 ( 부족하면 두 배씩 늘린다 )
+     */
+    private int logSize = 16 * 1024 * 1024;
+
+    /**
+     * 이 개수만큼 기록되면 스냅샷을 만들고 이전 로그를 지운다.
+     */
+    private int snapshotEvery = 100_000;
+}
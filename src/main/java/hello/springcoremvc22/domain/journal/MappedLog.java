@@ -0,0 +1,308 @@
+package hello.springcoremvc22.domain.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 메모리 매핑된 추가 전용(append-only) 로그 파일 하나
+ *
+ * 파일 구조
+ * - 헤더: [int MAGIC][long epoch]
+ * - 기록: [int length][int crc][byte[length] payload] 반복, length = 0 이면 끝
+ *
+ * 기록은 매핑된 버퍼에 복사만 하고, 디스크 동기화는 FsyncPolicy 에 따라
+ * - ALWAYS: sync() 를 호출한 스레드가 직접
+ * - GROUP: 전용 flusher 스레드가 쌓인 구간을 한 번에 ( 그룹 커밋 )
+ * - NONE: 하지 않음
+ */
+class MappedLog implements Closeable {
+    static final int MAGIC = 0x49544c47; // "ITLG"
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+    static final int MAX_SIZE = 1 << 30;
+
+    private final Path path;
+    private final long epoch;
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final Duration groupCommitDelay;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    private MappedByteBuffer buffer;
+    private int written;
+    private int durable;
+    private boolean closed;
+    private Thread flusher;
+
+    private MappedLog(Path path, long epoch, FileChannel channel, MappedByteBuffer buffer, int position,
+                      FsyncPolicy fsyncPolicy, Duration groupCommitDelay) {
+        this.path = path;
+        this.epoch = epoch;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.written = position;
+        this.durable = position;
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupCommitDelay = groupCommitDelay;
+
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            flusher = new Thread(this::flushLoop, "item-journal-flusher-" + epoch);
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    /**
+     * 새 로그 파일 생성
+     */
+    static MappedLog create(Path path, long epoch, int size, FsyncPolicy fsyncPolicy, Duration groupCommitDelay) {
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(Integer.BYTES, epoch);
+            buffer.force(0, HEADER_SIZE);
+            channel.force(true);
+            return new MappedLog(path, epoch, channel, buffer, HEADER_SIZE, fsyncPolicy, groupCommitDelay);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 로그 파일의 기록을 처음부터 읽는다.
+     * - 길이가 0 이거나, 파일 끝을 넘거나, CRC 가 맞지 않는 기록에서 멈춘다. ( 마지막에 쓰다 만 기록 )
+     *
+     * @return 파일 헤더의 epoch, 로그 파일이 아니면 -1
+     */
+    static long replay(Path path, Consumer<ByteBuffer> consumer) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return -1;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_SIZE));
+            if (buffer.getInt(0) != MAGIC) {
+                return -1;
+            }
+            long epoch = buffer.getLong(Integer.BYTES);
+
+            int position = HEADER_SIZE;
+            CRC32C crc = new CRC32C();
+            while (position + RECORD_HEADER_SIZE <= buffer.limit()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.limit()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(position + RECORD_HEADER_SIZE, length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                    break;
+                }
+                consumer.accept(payload);
+                position += RECORD_HEADER_SIZE + length;
+            }
+            return epoch;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long epoch() {
+        return epoch;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * 기록을 버퍼에 추가하고, sync() 에 넘길 위치를 반환한다.
+     */
+    int append(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("log is closed: " + path);
+            }
+            int recordSize = RECORD_HEADER_SIZE + payload.length;
+            ensureCapacity(written + recordSize + Integer.BYTES);
+
+            // payload -> crc -> length 순으로 쓴다. length 가 마지막이라 중간에 죽어도 끝으로 인식된다.
+            buffer.put(written + RECORD_HEADER_SIZE, payload);
+            buffer.putInt(written + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt(written, payload.length);
+            written += recordSize;
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * position 까지의 기록이 정책에 맞게 내구성을 갖출 때까지 기다린다.
+     */
+    void sync(int position) {
+        switch (fsyncPolicy) {
+            case ALWAYS -> forceTo(position);
+            case GROUP -> awaitFlush(position);
+            case NONE -> {
+            }
+        }
+    }
+
+    /**
+     * 지금까지의 기록을 모두 동기화 ( 정책과 무관 )
+     */
+    void forceAll() {
+        forceTo(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushRequested.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            if (flusher != null) {
+                flusher.join();
+            }
+            if (fsyncPolicy != FsyncPolicy.NONE) {
+                forceTo(Integer.MAX_VALUE);
+            }
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 매핑 크기가 부족하면 두 배로 다시 매핑한다. ( lock 안에서 호출 )
+     */
+    private void ensureCapacity(int required) {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > MAX_SIZE) {
+            throw new IllegalStateException("log is full: " + path);
+        }
+        int capacity = buffer.capacity();
+        while (capacity < required) {
+            capacity = (int) Math.min((long) capacity * 2, MAX_SIZE);
+        }
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void forceTo(int position) {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        lock.lock();
+        try {
+            if (durable >= position) {
+                return;
+            }
+            target = buffer;
+            from = durable;
+            to = written;
+        } finally {
+            lock.unlock();
+        }
+
+        target.force(from, to - from);
+
+        lock.lock();
+        try {
+            if (to > durable) {
+                durable = to;
+                flushed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitFlush(int position) {
+        boolean pending;
+        lock.lock();
+        try {
+            while (durable < position && !closed) {
+                flushRequested.signal();
+                flushed.awaitUninterruptibly();
+            }
+            pending = durable < position;
+        } finally {
+            lock.unlock();
+        }
+
+        // 닫히는 중이라 flusher 가 없으면 직접 동기화
+        if (pending) {
+            forceTo(position);
+        }
+    }
+
+    /**
+     * 그룹 커밋 스레드
+     * - 기다리는 기록이 생기면 ( 필요하면 조금 더 모은 뒤 ) 한 번에 동기화하고 모두 깨운다.
+     */
+    private void flushLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (durable == written && !closed) {
+                    flushRequested.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (!groupCommitDelay.isZero()) {
+                try {
+                    Thread.sleep(groupCommitDelay.toMillis(), groupCommitDelay.toNanosPart() % 1_000_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            forceTo(Integer.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package hello.springcoremvc22.domain.page;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Keyset(커서) 기반 페이지
+ * - content: 현재 페이지의 항목 ( id 오름차순 )
+ * - nextCursor: 다음 페이지 요청 시 넘길 커서 ( 마지막 항목의 id ), 없으면 null
+ */
+@Getter
+public class CursorPage<T> {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> content;
+    private final Long nextCursor;
+    private final int size;
+
+    public CursorPage(List<T> content, Long nextCursor, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * 요청된 페이지 크기를 1 ~ MAX_SIZE 범위로 보정
+     */
+    public static int normalizeSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+}
@@ -0,0 +1,178 @@
+package hello.springcoremvc22.domain.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 상품 이름 검색 인덱스 ( 대소문자 구분 X )
+ * - 접두어: ( 이름, id ) 정렬 집합에서 접두어 위치부터 훑는다. ( trie 대신 skip list )
+ * - 부분 문자열: 2-gram -> id 집합, 검색어의 gram 중 가장 작은 두 집합의 교집합을 ( 서로 ceiling 으로 건너뛰며 ) 훑으면서 이름을 확인한다.
+ *   후보는 MAX_CANDIDATES 개까지만 확인한다. => gram 은 흔한데 검색어는 드문 경우 ( "aaaaaaaa" ) 에도 전체를 훑지 않는다.
+ *   ( 그만큼 뒤쪽 결과는 빠질 수 있다. typeahead 라 다음 글자에서 다시 찾는다. )
+ *
+ * 저장 / 수정할 때 바로 반영한다. ( put ) 잠금 없이 읽으므로 반영 중인 상품은 잠깐 빠질 수 있다.
+ * 검색은 결과 ( 최대 MAX_RESULTS ) 를 채우면 멈춘다. => 상품 수와 상관없이 할당이 일정하다.
+ */
+public class NameIndex {
+    public static final int MAX_RESULTS = 20;
+    static final int GRAM = 2;
+    static final int MAX_CANDIDATES = 4096;
+
+    private final ConcurrentMap<Long, Name> names = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Key> sorted = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<String, Posting> grams = new ConcurrentHashMap<>();
+
+    /**
+     * id 의 이름을 name 으로 ( 이전 이름은 지운다, null 이면 지우기만 )
+     * - 같은 id 에 대해서는 동시에 호출되지 않아야 한다. ( 저장소의 수정 잠금 안에서 호출 )
+     */
+    public void put(long id, String name) {
+        Name current = name == null ? null : new Name(name, normalize(name));
+        Name previous = current == null ? names.remove(id) : names.put(id, current);
+        if (previous != null) {
+            sorted.remove(new Key(previous.normalized(), id));
+            for (String gram : grams(previous.normalized())) {
+                Posting posting = grams.get(gram);
+                if (posting != null) {
+                    posting.remove(id);
+                }
+            }
+        }
+        if (current != null) {
+            sorted.add(new Key(current.normalized(), id));
+            for (String gram : grams(current.normalized())) {
+                grams.computeIfAbsent(gram, g -> new Posting()).add(id);
+            }
+        }
+    }
+
+    /**
+     * 접두어가 같은 이름 ( 이름 순 ) 다음에 이름 중간에 포함된 상품 ( id 순 )
+     * - 검색어가 GRAM 보다 짧으면 접두어만 찾는다.
+     */
+    public List<Match> search(String query, int limit) {
+        int max = Math.min(Math.max(limit, 1), MAX_RESULTS);
+        List<Match> matches = new ArrayList<>(max);
+        if (query == null || query.isBlank()) {
+            return matches;
+        }
+        String q = normalize(query.strip());
+
+        for (Key key : sorted.tailSet(new Key(q, Long.MIN_VALUE))) {
+            if (matches.size() == max || !key.name().startsWith(q)) {
+                break;
+            }
+            Name name = names.get(key.id());
+            if (name != null && name.normalized().equals(key.name())) {
+                matches.add(new Match(key.id(), name.value()));
+            }
+        }
+        if (matches.size() == max || q.length() < GRAM) {
+            return matches;
+        }
+
+        Posting smallest = null;
+        Posting second = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            Posting posting = grams.get(q.substring(i, i + GRAM));
+            if (posting == null) {
+                return matches;
+            }
+            if (posting == smallest || posting == second) {
+                continue;
+            }
+            if (smallest == null || posting.size.get() < smallest.size.get()) {
+                second = smallest;
+                smallest = posting;
+            } else if (second == null || posting.size.get() < second.size.get()) {
+                second = posting;
+            }
+        }
+
+        Long id = smallest.ids.ceiling(Long.MIN_VALUE);
+        for (int examined = 0; id != null && matches.size() < max && examined < MAX_CANDIDATES; examined++) {
+            if (second != null) {
+                Long other = second.ids.ceiling(id);
+                if (other == null) {
+                    break;
+                }
+                if (!other.equals(id)) {
+                    id = smallest.ids.ceiling(other);
+                    continue;
+                }
+            }
+            Name name = names.get(id);
+            if (name != null && !name.normalized().startsWith(q) && name.normalized().contains(q)) {
+                matches.add(new Match(id, name.value()));
+            }
+            id = smallest.ids.higher(id);
+        }
+        return matches;
+    }
+
+    public void clear() {
+        names.clear();
+        sorted.clear();
+        grams.clear();
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * 검색 결과 ( id + 원래 이름 )
+     */
+    public record Match(long id, String itemName) {
+    }
+
+    private record Name(String value, String normalized) {
+    }
+
+    /**
+     * 정렬 키 ( 같은 이름은 id 순 ) - 이름이 같은 상품끼리 항목을 공유하지 않으므로 지울 때 경합이 없다.
+     */
+    private record Key(String name, long id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int compare = name.compareTo(other.name);
+            return compare != 0 ? compare : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * gram 하나의 id 집합 ( 크기는 따로 센다. ConcurrentSkipListSet.size() 는 O(n) )
+     * - 비어도 지우지 않는다. ( 지우기 / 추가 경합 방지, gram 종류만큼만 남는다. )
+     */
+    private static final class Posting {
+        private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(long id) {
+            if (ids.add(id)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(long id) {
+            if (ids.remove(id)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
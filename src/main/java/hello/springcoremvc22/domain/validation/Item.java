@@ -1,16 +1,27 @@
 package hello.springcoremvc22.domain.validation;
 
+import hello.springcoremvc22.validation.PricedItem;
+import hello.springcoremvc22.validation.TotalPriceMin;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Getter
 @Setter
-public class Item {
+@TotalPriceMin(value = 10000, groups = {SaveCheck.class, UpdateCheck.class})
+public class Item implements PricedItem {
     private Long id;
     private String itemName;
     private Integer price;
     private Integer quantity;
 
+    /**
+     * 저장소가 붙이는 버전 / 마지막 수정 시각 ( 저장 / 수정마다 바뀐다. )
+     */
+    private Long version;
+    private Instant lastModified;
+
     public Item() {
     }
 
@@ -0,0 +1,30 @@
+package hello.springcoremvc22.domain.validation;
+
+import hello.springcoremvc22.domain.journal.JournalCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static hello.springcoremvc22.domain.journal.JournalCodec.*;
+
+/**
+ * [id][itemName][price][quantity]
+ */
+public class ItemJournalCodec implements JournalCodec<Item> {
+    @Override
+    public void write(DataOutput out, Item item) throws IOException {
+        out.writeLong(item.getId());
+        writeNullableString(out, item.getItemName());
+        writeNullableInt(out, item.getPrice());
+        writeNullableInt(out, item.getQuantity());
+    }
+
+    @Override
+    public Item read(DataInput in) throws IOException {
+        long id = in.readLong();
+        Item item = new Item(readNullableString(in), readNullableInt(in), readNullableInt(in));
+        item.setId(id);
+        return item;
+    }
+}
@@ -1,39 +1,275 @@
 package hello.springcoremvc22.domain.validation;
 
+import hello.springcoremvc22.domain.journal.ItemJournal;
+import hello.springcoremvc22.domain.page.CursorPage;
+import hello.springcoremvc22.domain.search.NameIndex;
+import hello.springcoremvc22.domain.version.ItemVersions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 동시성 안전한 저장소
+ * - ID 발급은 AtomicLong 으로 원자적으로 처리
+ * - 저장소는 ConcurrentSkipListMap ( lock-free, id 순으로 정렬 )
+ * - 저장소 내부 객체는 외부에 노출하지 않고 항상 복사본을 주고 받는다.
+ *   => update() 가 렌더링 중인 객체를 변경하는 일이 없다.
+ * - update() 는 버전을 비교해서 교체한다. ( 낙관적 잠금 )
+ * - 이름 검색 인덱스 ( 접두어 / 부분 문자열 ) 는 저장 / 수정과 함께 갱신한다.
+ * - 영속화 모드 ( item.journal.enabled=true ) 에서는 변경을 로그에 남기고, 시작할 때 복구한다.
+ */
 @Repository("itemValidationRepository")
 public class ItemRepository {
-    private static final Map<Long, Item> store = new HashMap<>();
-    private static long sequence = 0L;
+    private static final int LOCK_STRIPES = 64;
+
+    private final ConcurrentNavigableMap<Long, Item> store = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ItemVersions versions = new ItemVersions();
+    private final NameIndex nameIndex = new NameIndex();
+
+    /**
+     * 같은 상품의 수정 순서 ( = 로그 순서 ) 를 지키기 위한 줄무늬 잠금
+     * - 잠근 채로 로그 동기화 ( fsync ) 를 기다리므로 synchronized 대신 ReentrantLock
+     *   => 가상 스레드가 기다리는 동안 캐리어 스레드를 붙잡지 않는다. ( pinning X )
+     */
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ItemJournal<Item> journal;
+
+    public ItemRepository() {
+        this((ItemJournal<Item>) null);
+    }
+
+    @Autowired
+    public ItemRepository(ObjectProvider<ItemJournal<Item>> journal) {
+        this(journal.getIfAvailable());
+    }
+
+    public ItemRepository(ItemJournal<Item> journal) {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.journal = journal;
+        if (journal != null) {
+            journal.open(this::restore, () -> new ArrayList<>(store.values()));
+        }
+    }
 
     public Item save(Item item) {
-        item.setId(++sequence);
-        store.put(item.getId(), item);
+        item.setId(sequence.incrementAndGet());
+        ItemVersions.Stamp stamp = stamp(item);
+        Item saveItem = copyOf(item);
+        write(saveItem, () -> {
+            store.put(saveItem.getId(), saveItem);
+            nameIndex.put(saveItem.getId(), saveItem.getItemName());
+            versions.publish(saveItem.getId(), stamp);
+        });
         return item;
     }
 
+    /**
+     * 일괄 저장
+     * - id 는 한 번에 연속으로 발급하고, 로그 동기화도 한 번만 기다린다.
+     */
+    public List<Item> saveAll(List<Item> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        long firstId = sequence.getAndAdd(items.size()) + 1;
+        List<Item> saveItems = new ArrayList<>(items.size());
+        List<ItemVersions.Stamp> stamps = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            item.setId(firstId + i);
+            stamps.add(stamp(item));
+            saveItems.add(copyOf(item));
+        }
+
+        Runnable apply = () -> {
+            for (int i = 0; i < saveItems.size(); i++) {
+                Item saveItem = saveItems.get(i);
+                store.put(saveItem.getId(), saveItem);
+                nameIndex.put(saveItem.getId(), saveItem.getItemName());
+                versions.publish(saveItem.getId(), stamps.get(i));
+            }
+        };
+        if (journal == null) {
+            apply.run();
+        } else {
+            journal.writeAll(saveItems, apply);
+        }
+        return items;
+    }
+
     public Item findById(Long id) {
-        return store.get(id);
+        Item item = store.get(id);
+        return item == null ? null : copyOf(item);
     }
 
     public List<Item> findAll() {
-        return new ArrayList<>(store.values());
+        List<Item> items = new ArrayList<>();
+        for (Item item : store.values()) {
+            items.add(copyOf(item));
+        }
+        return items;
+    }
+
+    /**
+     * 전체를 id 순으로 순회 ( 목록을 만들지 않고, 꺼낼 때마다 복사본을 준다. )
+     * - 순회 중의 저장 / 수정은 반영될 수도, 안 될 수도 있다. ( weakly consistent )
+     */
+    public Iterator<Item> iterator() {
+        Iterator<Item> values = store.values().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                return copyOf(values.next());
+            }
+        };
+    }
+
+    /**
+     * 커서 기반 페이지 조회 ( id 오름차순 )
+     * - cursor 가 null 이면 처음부터, 아니면 cursor 다음 id 부터 size 개
+     * - 전체를 복사하지 않고 필요한 만큼만 순회한다.
+     */
+    public CursorPage<Item> findPage(Long cursor, int size) {
+        int pageSize = CursorPage.normalizeSize(size);
+        Collection<Item> values = cursor == null ? store.values() : store.tailMap(cursor, false).values();
+
+        List<Item> items = new ArrayList<>(pageSize);
+        Long nextCursor = null;
+        for (Item item : values) {
+            if (items.size() == pageSize) {
+                nextCursor = items.get(pageSize - 1).getId();
+                break;
+            }
+            items.add(copyOf(item));
+        }
+        return new CursorPage<>(items, nextCursor, pageSize);
+    }
+
+    /**
+     * 이름 검색 ( typeahead ) - 접두어가 같은 이름 먼저, 그다음 이름 중간에 포함된 상품
+     * - 결과는 최대 NameIndex.MAX_RESULTS 개
+     */
+    public List<NameIndex.Match> searchByName(String query, int limit) {
+        return nameIndex.search(query, limit);
     }
 
-    public void update(Long itemId, Item updateParam) {
-        Item findItem = findById(itemId);
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+    public boolean isEmpty() {
+        return store.isEmpty();
+    }
+
+    /**
+     * 상품 버전 ( 없는 상품은 0 ) - 저장 / 수정될 때마다 올라간다.
+     */
+    public long version(Long itemId) {
+        return versions.of(itemId);
+    }
+
+    /**
+     * 전체 버전 - 어떤 상품이든 저장 / 수정되면 올라간다.
+     */
+    public long version() {
+        return versions.collection();
+    }
+
+    /**
+     * 전체 중 마지막으로 저장 / 수정된 시각
+     */
+    public Instant lastModified() {
+        return versions.lastModified();
+    }
+
+    /**
+     * 낙관적 잠금 수정 ( compare-and-set )
+     * - updateParam.version 이 있으면 현재 버전과 같을 때만 수정한다. ( null 이면 버전 확인 X )
+     * - 기존 객체를 수정하지 않고, 새 객체를 만들어 교체한다.
+     * - 잠금은 같은 상품 ( 줄무늬 ) 의 수정끼리만 겹친다. => 서로 다른 상품의 수정은 동시에 진행된다.
+     *
+     * @return 없는 상품이거나 버전이 다르면 ( 그 사이 다른 요청이 수정 ) false
+     */
+    public boolean update(Long itemId, Item updateParam) {
+        ReentrantLock lock = locks[Math.floorMod(itemId, LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Item current = store.get(itemId);
+            if (current == null || isStale(current, updateParam)) {
+                return false;
+            }
+            Item updateItem = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+            updateItem.setId(itemId);
+            ItemVersions.Stamp stamp = stamp(updateItem);
+            write(updateItem, () -> {
+                store.replace(itemId, current, updateItem);
+                nameIndex.put(itemId, updateItem.getItemName());
+                versions.publish(itemId, stamp);
+            });
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void clearStore() {
         store.clear();
+        nameIndex.clear();
+        versions.clear();
+    }
+
+    private void write(Item record, Runnable apply) {
+        if (journal == null) {
+            apply.run();
+        } else {
+            journal.write(record, apply);
+        }
+    }
+
+    /**
+     * 스냅샷 / 로그에서 읽은 항목을 반영 ( 같은 id 는 나중 기록으로 덮어쓴다 )
+     */
+    private void restore(Item item) {
+        ItemVersions.Stamp stamp = stamp(item);
+        store.put(item.getId(), item);
+        nameIndex.put(item.getId(), item.getItemName());
+        versions.publish(item.getId(), stamp);
+        sequence.accumulateAndGet(item.getId(), Math::max);
+    }
+
+    /**
+     * 새 버전을 발급해서 상품에 붙인다. ( 저장소에 반영한 뒤 publish )
+     */
+    private ItemVersions.Stamp stamp(Item item) {
+        ItemVersions.Stamp stamp = versions.next();
+        item.setVersion(stamp.version());
+        item.setLastModified(stamp.modifiedAt());
+        return stamp;
+    }
+
+    private static boolean isStale(Item current, Item updateParam) {
+        return updateParam.getVersion() != null && !updateParam.getVersion().equals(current.getVersion());
+    }
+
+    private static Item copyOf(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        copy.setVersion(item.getVersion());
+        copy.setLastModified(item.getLastModified());
+        return copy;
     }
 }
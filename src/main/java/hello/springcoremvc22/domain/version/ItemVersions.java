@@ -0,0 +1,92 @@
+package hello.springcoremvc22.domain.version;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 저장소의 변경 버전
+ * - 저장 / 수정할 때마다 시계를 1 올리고, 그 값을 상품 버전과 전체 ( 목록 ) 버전으로 남긴다.
+ * - 버전이 같으면 내용도 같다. => 렌더링 결과 캐시 키 / ETag 에 사용
+ * - 시계는 시작 시각 ( ms ) * 1000 부터 센다.
+ *   => 메모리에만 있어도 재시작 후의 버전이 이전 버전과 겹치지 않는다. ( ms 당 1000 건 미만의 변경이면 )
+ *
+ * 상품 버전은 next() 로 먼저 발급해서 상품에 붙이고, 저장소를 바꾼 "뒤에" publish() 한다. ( touch() = 둘 다 )
+ * 전체 버전은 publish() 할 때 새로 발급한다.
+ * - 서로 다른 상품은 동시에 바뀌므로, 상품 버전 순서와 publish 순서가 다를 수 있다.
+ *   ( A 가 10, B 가 11 을 받고 B 가 먼저 publish 해도 A 의 publish 는 전체 버전을 다시 올린다. )
+ * => 전체 버전 v 를 읽었다면 v 이하로 publish 된 변경은 모두 저장소에 들어가 있다.
+ *    버전을 먼저 읽고 렌더링한 결과는 옛 버전으로 남을 뿐, 새 버전에 옛 내용이 붙지 않는다.
+ */
+public class ItemVersions {
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final ConcurrentMap<Long, Stamp> items = new ConcurrentHashMap<>();
+    private final AtomicReference<Stamp> latest = new AtomicReference<>(next());
+
+    /**
+     * 새 버전 발급 ( 아직 조회되는 버전은 아니다. )
+     */
+    public Stamp next() {
+        return new Stamp(clock.incrementAndGet(), Instant.now());
+    }
+
+    /**
+     * 상품이 stamp 버전으로 바뀌었음을 알린다.
+     * - 전체 버전은 stamp 가 아니라 지금 발급한 버전 ( 먼저 발급받은 쓰기가 늦게 끝나도 올라간다. )
+     */
+    public void publish(Long itemId, Stamp stamp) {
+        items.merge(itemId, stamp, ItemVersions::newer);
+        latest.accumulateAndGet(new Stamp(clock.incrementAndGet(), stamp.modifiedAt()), ItemVersions::newer);
+    }
+
+    /**
+     * 상품이 바뀌었음을 기록하고 새 버전을 반환
+     */
+    public Stamp touch(Long itemId) {
+        Stamp stamp = next();
+        publish(itemId, stamp);
+        return stamp;
+    }
+
+    /**
+     * @return 상품 버전 ( 없는 상품은 0 )
+     */
+    public long of(Long itemId) {
+        Stamp stamp = items.get(itemId);
+        return stamp == null ? 0 : stamp.version();
+    }
+
+    /**
+     * 전체 버전 ( 어떤 상품이든 바뀌면 올라간다. )
+     */
+    public long collection() {
+        return latest.get().version();
+    }
+
+    /**
+     * 전체 중 마지막으로 바뀐 시각
+     */
+    public Instant lastModified() {
+        return latest.get().modifiedAt();
+    }
+
+    /**
+     * 저장소를 비울 때: 상품 버전은 지우고, 전체 버전은 올린다.
+     */
+    public void clear() {
+        items.clear();
+        latest.accumulateAndGet(next(), ItemVersions::newer);
+    }
+
+    private static Stamp newer(Stamp a, Stamp b) {
+        return a.version() >= b.version() ? a : b;
+    }
+
+    /**
+     * 버전 + 바뀐 시각
+     */
+    public record Stamp(long version, Instant modifiedAt) {
+    }
+}
@@ -1,5 +1,7 @@
 package hello.springcoremvc22.dto.item;
 
+import hello.springcoremvc22.validation.PricedItem;
+import hello.springcoremvc22.validation.TotalPriceMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,7 +11,8 @@ import org.hibernate.validator.constraints.Range;
 
 @Setter
 @Getter
-public class ItemSaveDto {
+@TotalPriceMin(10000)
+public class ItemSaveDto implements PricedItem {
     @NotBlank
     private String itemName;
 
@@ -1,5 +1,7 @@
 package hello.springcoremvc22.dto.item;
 
+import hello.springcoremvc22.validation.PricedItem;
+import hello.springcoremvc22.validation.TotalPriceMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
@@ -8,7 +10,8 @@ import org.hibernate.validator.constraints.Range;
 
 @Getter
 @Setter
-public class ItemUpdateDto {
+@TotalPriceMin(10000)
+public class ItemUpdateDto implements PricedItem {
     @NotNull
     private Long id;
 
@@ -20,4 +23,9 @@ public class ItemUpdateDto {
     private Integer price;
 
     private Integer quantity;
+
+    /**
+     * 수정 폼을 열 때의 상품 버전 ( 낙관적 잠금 )
+     */
+    private Long version;
 }
@@ -0,0 +1,420 @@
+package hello.springcoremvc22.message;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.AbstractMessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.util.ObjectUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 메시지 파일을 locale 별 평면 테이블로 미리 합쳐 두는 MessageSource
+ *
+ * - 시작할 때 basename 의 모든 번들 ( messages.properties, messages_en.properties ... ) 을 한 번만 읽는다.
+ * - locale 별로 ( basename 순서 + 번들 상속 순서 ) 를 반영해 코드 -> 메시지 테이블 하나로 합친다.
+ *   => 코드 하나를 찾는 비용이 맵 조회 한 번
+ * - 코드 배열 ( required.item.itemName, required.itemName, ... ) 별로 처음 찾은 메시지를 기억한다.
+ * - MessageFormat 은 ( locale, 코드 ) 별로 한 번만 만든다.
+ *
+ * 메시지를 찾는 순서, 인자 처리, 기본 메시지 처리는 ResourceBundleMessageSource 와 같다.
+ * - locale 번들이 하나도 없으면 ( fallbackToSystemLocale = true 일 때 ) 시스템 locale 번들을 쓴다.
+ * - ?lang= 으로 아무 locale 이나 들어올 수 있으므로 MAX_LOCALES 개까지만 locale 별 테이블을 캐시한다.
+ *   그 뒤로 오는 locale 은 같은 번들 조합을 쓰는 공유 테이블을 쓴다. ( 번들 조합 수만큼만 생긴다. )
+ *   => 요청마다 번들을 다시 합치지 않는다. ( 숫자 형식만 처음 만든 locale 기준 )
+ *
+ * 다시 읽기 ( reload )
+ * - 바뀐 번들 파일 하나만 다시 읽고, 그 번들을 쓰는 locale 의 테이블만 버린다.
+ * - 읽는 쪽은 잠금 없이 volatile 필드 하나만 읽는다. ( 새 상태를 만들어 통째로 교체 )
+ */
+@Slf4j
+public class FlatMessageSource extends AbstractMessageSource {
+    static final int MAX_LOCALES = 64;
+    static final int MAX_CHAINS = 4096;
+
+    private static final ResourceBundle.Control CONTROL =
+            ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+    private static final Entry NONE = new Entry(null, null, null);
+
+    private final ResourcePatternResolver resourceResolver;
+    private final Charset encoding;
+    private final String[] basenames;
+    private boolean fallbackToSystemLocale = true;
+
+    /**
+     * 번들 파일 위치 ( 기본: classpath, 예: file:src/main/resources/ )
+     */
+    private String location = "classpath:";
+
+    /**
+     * 읽어 둔 번들 + locale 별 테이블 ( 다시 읽을 때는 통째로 교체 )
+     */
+    private volatile Catalog catalog = new Catalog(Map.of());
+
+    public FlatMessageSource(ResourceLoader resourceLoader, Charset encoding, String... basenames) {
+        this.resourceResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        this.encoding = encoding;
+        this.basenames = basenames;
+    }
+
+    public void setFallbackToSystemLocale(boolean fallbackToSystemLocale) {
+        this.fallbackToSystemLocale = fallbackToSystemLocale;
+    }
+
+    public void setLocation(String location) {
+        this.location = location.endsWith(":") || location.endsWith("/") ? location : location + "/";
+    }
+
+    public String[] getBasenames() {
+        return basenames.clone();
+    }
+
+    /**
+     * 모든 번들을 읽어 테이블을 새로 만든다.
+     */
+    public synchronized void load() {
+        Map<String, Map<String, String>> bundles = new HashMap<>();
+        for (String basename : basenames) {
+            for (String bundleName : findBundleNames(basename)) {
+                bundles.put(bundleName, readBundle(bundleName));
+            }
+        }
+        catalog = new Catalog(bundles);
+        log.info("message bundles loaded: {}", new TreeSet<>(bundles.keySet()));
+    }
+
+    /**
+     * 번들 하나만 다시 읽는다.
+     * - 내용만 바뀌었으면 이 번들을 쓰는 locale 의 테이블만 버린다.
+     * - 번들이 새로 생기거나 없어졌으면 번들 상속 순서가 바뀔 수 있으므로 모든 테이블을 버린다.
+     */
+    public synchronized void reload(String bundleName) {
+        Catalog current = catalog;
+        Map<String, Map<String, String>> bundles = new HashMap<>(current.bundles);
+        boolean existed = bundles.containsKey(bundleName);
+        boolean exists = resource(bundleName).exists();
+        if (exists) {
+            bundles.put(bundleName, readBundle(bundleName));
+        } else {
+            bundles.remove(bundleName);
+        }
+
+        Catalog next = new Catalog(bundles);
+        if (existed == exists) {
+            current.tables.forEach((locale, table) -> {
+                if (!table.bundleNames.contains(bundleName)) {
+                    next.tables.put(locale, table);
+                }
+            });
+            current.shared.forEach((chains, table) -> {
+                if (!table.bundleNames.contains(bundleName)) {
+                    next.shared.put(chains, table);
+                }
+            });
+        }
+        catalog = next;
+        log.info("message bundle reloaded: {} ( kept tables = {} )", bundleName, next.tables.keySet());
+    }
+
+    /**
+     * 파일 시스템에 있는 번들이면 그 디렉토리, 아니면 ( jar 안 등 ) null
+     */
+    public Path directoryOf(String basename) {
+        String path = basename.replace('.', '/');
+        int slash = path.lastIndexOf('/');
+        Resource directory = resourceResolver.getResource(location + (slash < 0 ? "" : path.substring(0, slash + 1)));
+        try {
+            return directory.getFile().toPath();
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * basename 의 번들 파일 이름이면 번들 이름 ( messages_en.properties -> config.messages.messages_en ), 아니면 null
+     */
+    public String bundleNameOf(String basename, String fileName) {
+        String path = basename.replace('.', '/');
+        String baseFileName = path.substring(path.lastIndexOf('/') + 1);
+        if (!fileName.startsWith(baseFileName) || !fileName.endsWith(".properties")
+                || fileName.length() < baseFileName.length() + ".properties".length()) {
+            return null;
+        }
+        String suffix = fileName.substring(baseFileName.length(), fileName.length() - ".properties".length());
+        return suffix.isEmpty() || suffix.startsWith("_") ? basename + suffix : null;
+    }
+
+    /**
+     * 코드 배열 중 처음 찾은 코드의 메시지
+     * - 코드 배열별 결과를 기억해 두므로 같은 오류는 다시 탐색하지 않는다.
+     * - 어떤 코드도 없으면 기본 메시지 / 예외 처리는 AbstractMessageSource 에 맡긴다.
+     */
+    @Override
+    public String getMessage(MessageSourceResolvable resolvable, Locale locale) throws NoSuchMessageException {
+        String[] codes = resolvable.getCodes();
+        if (codes != null && codes.length > 0) {
+            Locale targetLocale = locale != null ? locale : Locale.getDefault();
+            Entry entry = table(targetLocale).resolve(codes);
+            if (entry != NONE) {
+                return format(entry, resolvable.getArguments(), targetLocale);
+            }
+        }
+        return super.getMessage(resolvable, locale);
+    }
+
+    @Override
+    protected String resolveCodeWithoutArguments(String code, Locale locale) {
+        Entry entry = table(locale).entries.get(code);
+        return entry == null ? null : entry.template;
+    }
+
+    @Override
+    protected MessageFormat resolveCode(String code, Locale locale) {
+        Entry entry = table(locale).entries.get(code);
+        return entry == null ? null : entry.format();
+    }
+
+    private String format(Entry entry, Object[] args, Locale locale) {
+        if (!isAlwaysUseMessageFormat() && ObjectUtils.isEmpty(args)) {
+            return entry.template;
+        }
+        Object[] resolvedArgs = resolveArguments(args, locale);
+        MessageFormat messageFormat = entry.format();
+        synchronized (messageFormat) {
+            return messageFormat.format(resolvedArgs);
+        }
+    }
+
+    private Table table(Locale locale) {
+        Catalog current = catalog;
+        Table table = current.tables.get(locale);
+        if (table != null) {
+            return table;
+        }
+        if (current.tables.size() >= MAX_LOCALES) {
+            List<List<String>> chains = bundleChains(current, locale);
+            return current.shared.computeIfAbsent(chains, key -> createTable(current, locale, key));
+        }
+        return current.tables.computeIfAbsent(locale, key -> createTable(current, key, bundleChains(current, key)));
+    }
+
+    /**
+     * 만들어 둔 테이블 수 ( locale 별 + 공유 )
+     */
+    int tableCount() {
+        Catalog current = catalog;
+        return current.tables.size() + current.shared.size();
+    }
+
+    /**
+     * basename 순서대로 번들 이름 목록 ( 테이블 내용은 이 목록만으로 정해진다. )
+     */
+    private List<List<String>> bundleChains(Catalog current, Locale locale) {
+        List<List<String>> chains = new ArrayList<>(basenames.length);
+        for (String basename : basenames) {
+            chains.add(bundleChain(current, basename, locale));
+        }
+        return chains;
+    }
+
+    /**
+     * 앞의 basename 이 뒤의 basename 보다, 구체적인 locale 번들이 상위 번들보다 우선한다.
+     * => 우선순위가 낮은 것부터 덮어쓴다.
+     */
+    private Table createTable(Catalog current, Locale locale, List<List<String>> chains) {
+        Map<String, String> templates = new HashMap<>();
+        Set<String> bundleNames = new HashSet<>();
+        for (int i = chains.size() - 1; i >= 0; i--) {
+            List<String> chain = chains.get(i);
+            for (int j = chain.size() - 1; j >= 0; j--) {
+                templates.putAll(current.bundles.get(chain.get(j)));
+            }
+            bundleNames.addAll(chain);
+        }
+
+        Map<String, Entry> entries = new HashMap<>(templates.size() * 2);
+        templates.forEach((code, template) -> entries.put(code, new Entry(this, template, locale)));
+        return new Table(entries, Set.copyOf(bundleNames));
+    }
+
+    /**
+     * ResourceBundle.getBundle() 과 같은 순서의 번들 이름 목록 ( 구체적인 것부터 )
+     * - messages_en_US -> messages_en -> messages
+     */
+    private List<String> bundleChain(Catalog current, String basename, Locale locale) {
+        List<String> chain = localeBundles(current, basename, locale);
+        if (chain.isEmpty() && fallbackToSystemLocale && !locale.equals(Locale.getDefault())) {
+            chain = localeBundles(current, basename, Locale.getDefault());
+        }
+        if (current.bundles.containsKey(basename)) {
+            chain.add(basename);
+        }
+        return chain;
+    }
+
+    private List<String> localeBundles(Catalog current, String basename, Locale locale) {
+        List<String> names = new ArrayList<>();
+        for (Locale candidate : CONTROL.getCandidateLocales(basename, locale)) {
+            if (candidate.equals(Locale.ROOT)) {
+                continue;
+            }
+            String bundleName = CONTROL.toBundleName(basename, candidate);
+            if (current.bundles.containsKey(bundleName)) {
+                names.add(bundleName);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * basename 의 번들 이름을 모두 찾는다. ( config.messages.messages, config.messages.messages_en ... )
+     */
+    private Set<String> findBundleNames(String basename) {
+        String pattern = ("classpath:".equals(location) ? "classpath*:" : location)
+                + basename.replace('.', '/') + "*.properties";
+        Set<String> bundleNames = new TreeSet<>();
+        try {
+            for (Resource resource : resourceResolver.getResources(pattern)) {
+                String bundleName = resource.getFilename() == null ? null : bundleNameOf(basename, resource.getFilename());
+                if (bundleName != null) {
+                    bundleNames.add(bundleName);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bundleNames;
+    }
+
+    private Resource resource(String bundleName) {
+        return resourceResolver.getResource(location + bundleName.replace('.', '/') + ".properties");
+    }
+
+    /**
+     * 번들 하나를 읽는다. ( 키와 메시지는 intern 해서 locale / 테이블끼리 공유 )
+     */
+    Map<String, String> readBundle(String bundleName) {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(resource(bundleName).getInputStream(), encoding)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<String, String> messages = new HashMap<>(properties.size() * 2);
+        for (String key : properties.stringPropertyNames()) {
+            messages.put(key.intern(), properties.getProperty(key).intern());
+        }
+        return Collections.unmodifiableMap(messages);
+    }
+
+    /**
+     * tables: locale 별 테이블 ( MAX_LOCALES 개까지 )
+     * shared: 번들 조합별 테이블 ( MAX_LOCALES 를 넘은 locale 용 )
+     */
+    private record Catalog(
+            Map<String, Map<String, String>> bundles,
+            ConcurrentMap<Locale, Table> tables,
+            ConcurrentMap<List<List<String>>, Table> shared
+    ) {
+        Catalog(Map<String, Map<String, String>> bundles) {
+            this(Map.copyOf(bundles), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 한 locale 의 코드 -> 메시지 테이블 + 코드 배열 결과 캐시
+     * - bundleNames: 이 테이블을 만들 때 쓴 번들 ( 다시 읽을 때 버릴지 판단 )
+     */
+    private static class Table {
+        final Map<String, Entry> entries;
+        final Set<String> bundleNames;
+        final ConcurrentMap<CodeChain, Entry> chains = new ConcurrentHashMap<>();
+
+        Table(Map<String, Entry> entries, Set<String> bundleNames) {
+            this.entries = entries;
+            this.bundleNames = bundleNames;
+        }
+
+        Entry resolve(String[] codes) {
+            CodeChain key = new CodeChain(codes);
+            Entry entry = chains.get(key);
+            if (entry != null) {
+                return entry;
+            }
+            entry = NONE;
+            for (String code : codes) {
+                Entry found = entries.get(code);
+                if (found != null) {
+                    entry = found;
+                    break;
+                }
+            }
+            if (chains.size() < MAX_CHAINS) {
+                chains.put(new CodeChain(codes.clone()), entry);
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * 메시지 하나 + MessageFormat ( 처음 쓸 때 한 번만 만든다. )
+     */
+    private static class Entry {
+        final FlatMessageSource owner;
+        final String template;
+        final Locale locale;
+        private volatile MessageFormat format;
+
+        Entry(FlatMessageSource owner, String template, Locale locale) {
+            this.owner = owner;
+            this.template = template;
+            this.locale = locale;
+        }
+
+        MessageFormat format() {
+            MessageFormat messageFormat = format;
+            if (messageFormat == null) {
+                messageFormat = owner.createMessageFormat(template, locale);
+                format = messageFormat;
+            }
+            return messageFormat;
+        }
+    }
+
+    /**
+     * 코드 배열을 내용으로 비교하는 키
+     */
+    private static final class CodeChain {
+        private final String[] codes;
+        private final int hash;
+
+        CodeChain(String[] codes) {
+            this.codes = codes;
+            this.hash = Arrays.hashCode(codes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CodeChain other && hash == other.hash && Arrays.equals(codes, other.codes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
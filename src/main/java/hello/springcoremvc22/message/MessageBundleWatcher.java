@@ -0,0 +1,158 @@
+package hello.springcoremvc22.message;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 메시지 번들 파일을 WatchService 로 감시하다가, 바뀐 번들만 FlatMessageSource 에 다시 읽게 한다.
+ *
+ * - 편집기는 저장 한 번에 여러 이벤트를 남기므로 debounce 만큼 모아서 번들별로 한 번만 다시 읽는다.
+ * - 다시 읽은 뒤 MessagesReloadedEvent 를 발행한다. ( 메시지로 만든 캐시 갱신용 )
+ * - jar 안의 번들처럼 파일 시스템에 없는 번들은 감시하지 않는다.
+ */
+@Slf4j
+public class MessageBundleWatcher implements InitializingBean, DisposableBean {
+    private final FlatMessageSource messageSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration debounce;
+
+    /**
+     * 감시하는 디렉토리 -> 그 디렉토리에 있는 basename 목록
+     */
+    private final Map<Path, List<String>> basenames = new HashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public MessageBundleWatcher(FlatMessageSource messageSource, ApplicationEventPublisher eventPublisher, Duration debounce) {
+        this.messageSource = messageSource;
+        this.eventPublisher = eventPublisher;
+        this.debounce = debounce;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String basename : messageSource.getBasenames()) {
+            Path directory = messageSource.directoryOf(basename);
+            if (directory == null) {
+                log.warn("message bundle is not on the file system, reload disabled: {}", basename);
+                continue;
+            }
+            basenames.computeIfAbsent(directory, key -> new ArrayList<>()).add(basename);
+        }
+        if (basenames.isEmpty()) {
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path directory : basenames.keySet()) {
+                directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        thread = new Thread(this::watch, "message-bundle-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("watching message bundles: {}", basenames.keySet());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(Duration.ofSeconds(5).toMillis());
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                Thread.sleep(debounce.toMillis());
+
+                Set<String> changed = new TreeSet<>();
+                while (key != null) {
+                    collect(key, changed);
+                    key.reset();
+                    key = watchService.poll();
+                }
+                changed.forEach(this::reload);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void collect(WatchKey key, Set<String> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // 이벤트를 놓쳤으면 이 디렉토리의 번들을 모두 다시 읽는다.
+                for (String basename : basenames.getOrDefault(directory, List.of())) {
+                    changed.addAll(bundleNames(directory, basename));
+                }
+                continue;
+            }
+            String fileName = event.context().toString();
+            for (String basename : basenames.getOrDefault(directory, List.of())) {
+                String bundleName = messageSource.bundleNameOf(basename, fileName);
+                if (bundleName != null) {
+                    changed.add(bundleName);
+                }
+            }
+        }
+    }
+
+    private List<String> bundleNames(Path directory, String basename) {
+        List<String> bundleNames = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.properties")) {
+            for (Path path : stream) {
+                String bundleName = messageSource.bundleNameOf(basename, path.getFileName().toString());
+                if (bundleName != null) {
+                    bundleNames.add(bundleName);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("cannot list message bundles: {}", directory, e);
+        }
+        return bundleNames;
+    }
+
+    private void reload(String bundleName) {
+        try {
+            messageSource.reload(bundleName);
+            eventPublisher.publishEvent(new MessagesReloadedEvent(this, localeOf(bundleName)));
+        } catch (RuntimeException e) {
+            // 저장 중인 파일을 읽은 경우 등, 다음 변경 때 다시 읽는다.
+            log.warn("message bundle reload failed: {}", bundleName, e);
+        }
+    }
+
+    /**
+     * config.messages.messages_en -> en, 기본 번들이면 null ( 전체 locale )
+     */
+    private Locale localeOf(String bundleName) {
+        for (String basename : messageSource.getBasenames()) {
+            if (bundleName.startsWith(basename + "_")) {
+                return Locale.forLanguageTag(bundleName.substring(basename.length() + 1).replace('_', '-'));
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package hello.springcoremvc22.message;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Locale;
+
+/**
+ * 메시지 번들이 다시 로드되었을 때 발행하는 이벤트
+ * - 메시지로 만든 캐시는 이 이벤트를 받아 비운다.
+ * - locale 이 null 이면 전체 locale
+ */
+public class MessagesReloadedEvent extends ApplicationEvent {
+    private final Locale locale;
+
+    public MessagesReloadedEvent(Object source, Locale locale) {
+        super(source);
+        this.locale = locale;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+}
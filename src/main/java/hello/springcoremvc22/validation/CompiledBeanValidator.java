@@ -0,0 +1,233 @@
+package hello.springcoremvc22.validation;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.groups.Default;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.validator.constraints.Range;
+import org.springframework.beans.BeanUtils;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * DTO 별로 제약 조건을 미리 컴파일해 두는 Bean Validation
+ *
+ * - 시작할 때 Hibernate Validator 의 메타데이터에서 각 필드의 제약 조건을 읽어
+ *   getter ( LambdaMetafactory 로 생성 ) + 조건 검사 목록으로 만들어 둔다.
+ * - 요청마다 이 목록만 검사하고, 모두 통과하면 바로 끝낸다. ( 할당 없음 )
+ * - 하나라도 실패하면 원래 Bean Validation 으로 다시 검증한다.
+ *   => 오류 코드 / 인자 / 메시지가 기존과 완전히 같다.
+ *
+ * 클래스 레벨 제약 조건은 @TotalPriceMin 만 컴파일한다.
+ * 그룹 검증, 중첩(@Valid), 지원하지 않는 제약 조건이 있는 클래스는 항상 원래 Bean Validation 으로 검증한다.
+ *
+ * delegate 는 MVC 가 쓰는 검증기 ( mvcValidator ) 를 그대로 받는다. => 닫는 것도 컨텍스트가 한다.
+ */
+@Slf4j
+public class CompiledBeanValidator implements SmartValidator {
+    private final SpringValidatorAdapter delegate;
+    private final boolean enabled;
+    private final Map<Class<?>, List<Check>> checks = new ConcurrentHashMap<>();
+
+    public CompiledBeanValidator(SpringValidatorAdapter delegate, boolean enabled, Class<?>... targetClasses) {
+        this.delegate = delegate;
+        this.enabled = enabled;
+        for (Class<?> targetClass : targetClasses) {
+            List<Check> compiled = compile(targetClass);
+            if (compiled != null) {
+                checks.put(targetClass, compiled);
+            }
+        }
+        log.info("compiled bean validation: enabled = {}, classes = {}", enabled, checks.keySet());
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (isValid(target)) {
+            return;
+        }
+        delegate.validate(target, errors);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        if (validationHints.length == 0 && isValid(target)) {
+            return;
+        }
+        delegate.validate(target, errors, validationHints);
+    }
+
+    /**
+     * 컴파일된 검사를 모두 통과하면 true
+     * - false 는 "원래 검증기로 확인해야 한다" 는 뜻
+     */
+    boolean isValid(Object target) {
+        if (!enabled || target == null) {
+            return false;
+        }
+        List<Check> targetChecks = checks.get(target.getClass());
+        if (targetChecks == null) {
+            return false;
+        }
+        for (int i = 0; i < targetChecks.size(); i++) {
+            if (!targetChecks.get(i).test(target)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 컴파일할 수 없는 클래스면 null
+     */
+    private List<Check> compile(Class<?> targetClass) {
+        BeanDescriptor beanDescriptor = delegate.getConstraintsForClass(targetClass);
+        List<Check> compiled = new ArrayList<>();
+        for (ConstraintDescriptor<?> constraint : beanDescriptor.getConstraintDescriptors()) {
+            Predicate<Object> predicate = classPredicate(constraint, targetClass);
+            if (predicate == null) {
+                return null;
+            }
+            compiled.add(new Check(Function.identity(), predicate));
+        }
+
+        for (PropertyDescriptor property : beanDescriptor.getConstrainedProperties()) {
+            if (property.isCascaded()) {
+                return null;
+            }
+            Function<Object, Object> getter = getter(targetClass, property.getPropertyName());
+            if (getter == null) {
+                return null;
+            }
+            for (ConstraintDescriptor<?> constraint : property.getConstraintDescriptors()) {
+                Predicate<Object> predicate = predicate(constraint, property.getElementClass());
+                if (predicate == null) {
+                    return null;
+                }
+                compiled.add(new Check(getter, predicate));
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * 지원하는 제약 조건: @NotNull, @NotBlank, @Min, @Max, @Range ( 정수 타입 )
+     * - 조건은 Hibernate Validator 의 구현과 같다. ( null 은 @NotNull, @NotBlank 외에는 통과 )
+     */
+    private static Predicate<Object> predicate(ConstraintDescriptor<?> constraint, Class<?> type) {
+        if (!isDefaultGroup(constraint)) {
+            return null;
+        }
+
+        Annotation annotation = constraint.getAnnotation();
+        if (annotation instanceof NotNull) {
+            return value -> value != null;
+        }
+        if (annotation instanceof NotBlank) {
+            return value -> value != null && value.toString().trim().length() > 0;
+        }
+        if (!isIntegral(type)) {
+            return null;
+        }
+        if (annotation instanceof Min min) {
+            long minValue = min.value();
+            return value -> value == null || ((Number) value).longValue() >= minValue;
+        }
+        if (annotation instanceof Max max) {
+            long maxValue = max.value();
+            return value -> value == null || ((Number) value).longValue() <= maxValue;
+        }
+        if (annotation instanceof Range range) {
+            long minValue = range.min();
+            long maxValue = range.max();
+            return value -> {
+                if (value == null) {
+                    return true;
+                }
+                long longValue = ((Number) value).longValue();
+                return longValue >= minValue && longValue <= maxValue;
+            };
+        }
+        return null;
+    }
+
+    /**
+     * 지원하는 클래스 레벨 제약 조건: @TotalPriceMin
+     */
+    private static Predicate<Object> classPredicate(ConstraintDescriptor<?> constraint, Class<?> targetClass) {
+        if (!isDefaultGroup(constraint) || !PricedItem.class.isAssignableFrom(targetClass)) {
+            return null;
+        }
+        if (constraint.getAnnotation() instanceof TotalPriceMin totalPriceMin) {
+            long min = totalPriceMin.value();
+            return target -> TotalPriceMinValidator.isValid((PricedItem) target, min);
+        }
+        return null;
+    }
+
+    private static boolean isDefaultGroup(ConstraintDescriptor<?> constraint) {
+        Set<Class<?>> groups = constraint.getGroups();
+        return groups.size() == 1 && groups.contains(Default.class);
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == Integer.class || type == Long.class || type == Short.class || type == Byte.class;
+    }
+
+    /**
+     * getter 를 직접 호출하는 Function 생성 ( 리플렉션 X )
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Class<?> targetClass, String propertyName) {
+        java.beans.PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(targetClass, propertyName);
+        if (descriptor == null || descriptor.getReadMethod() == null
+                || descriptor.getReadMethod().getReturnType().isPrimitive()) {
+            return null;
+        }
+        Method readMethod = descriptor.getReadMethod();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(readMethod);
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(readMethod.getReturnType(), targetClass)
+            );
+            return (Function<Object, Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            log.warn("cannot compile getter: {}.{}", targetClass.getName(), propertyName, e);
+            return null;
+        }
+    }
+
+    private record Check(Function<Object, Object> getter, Predicate<Object> predicate) {
+        boolean test(Object target) {
+            return predicate.test(getter.apply(target));
+        }
+    }
+}
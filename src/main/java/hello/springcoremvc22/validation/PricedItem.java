@@ -0,0 +1,10 @@
+package hello.springcoremvc22.validation;
+
+/**
+ * 가격, 수량을 가진 객체 ( @TotalPriceMin 검증 대상 )
+ */
+public interface PricedItem {
+    Integer getPrice();
+
+    Integer getQuantity();
+}
@@ -0,0 +1,28 @@
+package hello.springcoremvc22.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * 가격 * 수량의 합이 value 이상이어야 한다. ( 클래스 레벨 )
+ * - PricedItem 을 구현한 클래스에 선언한다.
+ * - 가격이나 수량이 null 이면 검사하지 않는다. ( 필드 제약 조건에서 처리 )
+ * - 오류 코드: TotalPriceMin.{objectName} -> TotalPriceMin ( errors.properties )
+ *   => 스프링이 넘기는 인자는 {0} = 객체 이름, {1} = value ( 현재 값은 인자에 없다. )
+ * - message() 는 번들에 코드가 없을 때만 쓰인다. ( {totalPrice} 는 현재 값 )
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = TotalPriceMinValidator.class)
+public @interface TotalPriceMin {
+    String message() default "가격 * 수량의 합은 {value}원 이상이어야 합니다. 현재 값 = {totalPrice}";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    long value();
+}
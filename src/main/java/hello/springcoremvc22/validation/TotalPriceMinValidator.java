@@ -0,0 +1,46 @@
+package hello.springcoremvc22.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorContext;
+
+public class TotalPriceMinValidator implements ConstraintValidator<TotalPriceMin, PricedItem> {
+    private long min;
+
+    @Override
+    public void initialize(TotalPriceMin constraintAnnotation) {
+        this.min = constraintAnnotation.value();
+    }
+
+    @Override
+    public boolean isValid(PricedItem item, ConstraintValidatorContext context) {
+        if (isValid(item, min)) {
+            return true;
+        }
+
+        // 오류 메시지에 현재 값을 넣는다.
+        if (context instanceof HibernateConstraintValidatorContext hibernateContext) {
+            hibernateContext.addMessageParameter("totalPrice", totalPrice(item.getPrice(), item.getQuantity()));
+        }
+        return false;
+    }
+
+    /**
+     * 가격 또는 수량이 null 이면 true
+     */
+    public static boolean isValid(PricedItem item, long min) {
+        if (item == null) {
+            return true;
+        }
+        Integer price = item.getPrice();
+        Integer quantity = item.getQuantity();
+        return price == null || quantity == null || totalPrice(price, quantity) >= min;
+    }
+
+    /**
+     * int 곱셈은 수량이 크면 넘칠 수 있으므로 long 으로 계산
+     */
+    public static long totalPrice(int price, int quantity) {
+        return (long) price * quantity;
+    }
+}
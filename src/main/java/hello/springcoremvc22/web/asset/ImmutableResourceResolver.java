@@ -0,0 +1,137 @@
+package hello.springcoremvc22.web.asset;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * 내용 해시가 붙은 URL ( main-{md5}.css ) 로 찾은 자원에만 immutable 캐시 헤더를 붙인다.
+ * - VersionResourceResolver 가 버전을 확인한 자원은 ETag ( = 버전 ) 를 가진 HttpResource 다. ( 압축 파일이어도 유지된다. )
+ * - 해시 없는 URL ( main.css ) 은 그대로 둔다. => 핸들러의 기본 Cache-Control 을 따른다.
+ * - VersionResourceResolver 보다 앞에 둔다.
+ */
+public class ImmutableResourceResolver extends AbstractResourceResolver {
+    private final CacheControl cacheControl;
+
+    public ImmutableResourceResolver(CacheControl cacheControl) {
+        this.cacheControl = cacheControl;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(
+            @Nullable HttpServletRequest request,
+            String requestPath,
+            List<? extends Resource> locations,
+            ResourceResolverChain chain
+    ) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource instanceof HttpResource httpResource && httpResource.getResponseHeaders().getETag() != null) {
+            return new ImmutableResource(httpResource, cacheControl.getHeaderValue());
+        }
+        return resource;
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(
+            String resourceUrlPath,
+            List<? extends Resource> locations,
+            ResourceResolverChain chain
+    ) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    /**
+     * 원래 자원 + Cache-Control 헤더
+     */
+    static final class ImmutableResource extends AbstractResource implements HttpResource {
+        private final HttpResource original;
+        private final String cacheControl;
+
+        ImmutableResource(HttpResource original, String cacheControl) {
+            this.original = original;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public boolean exists() {
+            return original.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return original.isReadable();
+        }
+
+        @Override
+        public boolean isFile() {
+            return original.isFile();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return original.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return original.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return original.getFile();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return original.getInputStream();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return original.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return original.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return original.createRelative(relativePath);
+        }
+
+        @Override
+        @Nullable
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return original.getDescription();
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(original.getResponseHeaders());
+            headers.setCacheControl(cacheControl);
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package hello.springcoremvc22.web.cache;
+
+import java.util.Locale;
+
+/**
+ * 상품 버전으로 만드는 ETag ( strong, 따옴표 포함 )
+ * - 버전이 같으면 같은 내용이므로 본문을 만들기 전에 비교할 수 있다.
+ * - 페이지는 locale 마다 내용이 다르므로 locale 을 함께 넣는다.
+ */
+public final class ItemETags {
+    private ItemETags() {
+    }
+
+    /**
+     * JSON 응답용
+     */
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * 페이지용
+     */
+    public static String of(long version, Locale locale) {
+        return "\"" + version + "-" + locale.toLanguageTag() + "\"";
+    }
+}
@@ -0,0 +1,185 @@
+package hello.springcoremvc22.web.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 등록한 페이지의 렌더링 결과를 캐시하고, 조건부 GET 에 304 로 답하는 필터
+ *
+ * - addPage(경로 패턴, 버전): 버전은 그 페이지가 보여주는 데이터의 버전 ( 목록: 전체 버전, 상세: 상품 버전 )
+ * - 캐시에 같은 버전의 페이지가 있으면 컨트롤러 / 템플릿을 거치지 않는다.
+ *   If-None-Match 가 ETag 와 같으면 304, 아니면 캐시한 본문을 그대로 쓴다.
+ * - 없으면 렌더링한 본문을 캐시하고 ETag 를 붙인다. ( GET + 200 + text/html 만, HEAD 는 본문이 없다. )
+ *   컨트롤러가 붙인 ETag / Last-Modified 가 있으면 그대로 캐시해서 쓴다.
+ *
+ * 캐시하지 않는 요청
+ * - GET / HEAD 가 아닌 요청, ?lang= 요청 ( 인터셉터가 locale 을 바꿔야 한다. )
+ * - 렌더링 중에 세션이 새로 만들어진 요청 ( 링크에 jsessionid 가 붙을 수 있다. )
+ */
+public class PageCacheFilter extends OncePerRequestFilter {
+    private final RenderedPageCache cache;
+    private final LocaleResolver localeResolver;
+    private final List<CachedPage> pages = new ArrayList<>();
+
+    public PageCacheFilter(RenderedPageCache cache, LocaleResolver localeResolver) {
+        this.cache = cache;
+        this.localeResolver = localeResolver;
+    }
+
+    /**
+     * @param pattern 경로 패턴 ( 예: /form/items/{itemId:\d+} )
+     * @param version 경로 변수로 현재 버전을 구하는 함수
+     */
+    public void addPage(String pattern, ToLongFunction<Map<String, String>> version) {
+        pages.add(new CachedPage(PathPatternParser.defaultInstance.parse(pattern), version));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !(HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method))
+                || request.getParameter("lang") != null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        Long version = version(request);
+        if (version == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        Locale locale = localeResolver.resolveLocale(request);
+
+        RenderedPageCache.Page page = cache.get(uri, locale, version);
+        if (page != null) {
+            write(request, response, page);
+            return;
+        }
+
+        boolean hadSession = request.getSession(false) != null;
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        HttpSession session = request.getSession(false);
+        if (!HttpMethod.GET.matches(request.getMethod())
+                || wrapper.getStatus() != HttpServletResponse.SC_OK
+                || !isHtml(wrapper.getContentType())
+                || (!hadSession && session != null)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        // 컨트롤러가 붙인 ETag ( 버전 ) 가 있으면 그대로 쓰고, 없으면 본문으로 만든다.
+        byte[] body = wrapper.getContentAsByteArray();
+        String etag = wrapper.getHeader(HttpHeaders.ETAG);
+        page = new RenderedPageCache.Page(version, wrapper.getContentType(), body,
+                etag != null ? etag : etag(body), wrapper.getHeader(HttpHeaders.LAST_MODIFIED));
+        cache.put(uri, locale, page);
+
+        if (notModified(request, wrapper, page.etag())) {
+            wrapper.resetBuffer();
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * 요청 경로에 해당하는 페이지의 현재 버전 ( 등록된 페이지가 아니면 null )
+     */
+    private Long version(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (CachedPage cachedPage : pages) {
+            PathPattern.PathMatchInfo info = cachedPage.pattern().matchAndExtract(path);
+            if (info != null) {
+                return cachedPage.version().applyAsLong(info.getUriVariables());
+            }
+        }
+        return null;
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, RenderedPageCache.Page page) throws IOException {
+        if (page.lastModified() != null) {
+            response.setHeader(HttpHeaders.LAST_MODIFIED, page.lastModified());
+        }
+        if (notModified(request, response, page.etag())) {
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(page.contentType());
+        response.setContentLength(page.body().length);
+        if (!HttpMethod.HEAD.matches(request.getMethod())) {
+            response.getOutputStream().write(page.body());
+        }
+    }
+
+    /**
+     * ETag 헤더를 붙이고, If-None-Match 가 맞으면 304 로 바꾼다.
+     */
+    private static boolean notModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // 세션 / 쿠키의 locale 에 따라 내용이 달라지므로 공유 캐시에는 두지 않고, 매번 재검증하게 한다.
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * If-None-Match: "a", "b" / * / W/"a" ( 약한 비교 - RFC 9110 )
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHtml(String contentType) {
+        return contentType != null && contentType.startsWith(MediaType.TEXT_HTML_VALUE);
+    }
+
+    private static String etag(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    private record CachedPage(PathPattern pattern, ToLongFunction<Map<String, String>> version) {
+    }
+}
@@ -0,0 +1,76 @@
+package hello.springcoremvc22.web.cache;
+
+import hello.springcoremvc22.message.MessagesReloadedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 렌더링한 페이지 캐시 ( LRU )
+ * - 키: ( 요청 경로 + 쿼리, locale ), 값: 렌더링할 때의 상품 버전 + 본문 + ETag
+ * - 버전이 다르면 없는 것으로 본다. => 저장 / 수정된 상품의 페이지만 정확히 다시 렌더링된다.
+ * - maxEntries 를 넘으면 가장 오래 사용하지 않은 페이지부터 버린다.
+ * - 메시지 번들이 다시 로드되면 ( MessagesReloadedEvent ) 전부 비운다.
+ */
+public class RenderedPageCache {
+    private final Map<Key, Page> pages;
+
+    public RenderedPageCache(int maxEntries) {
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Page> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return version 으로 렌더링한 페이지 ( 없거나 버전이 다르면 null )
+     */
+    public Page get(String uri, Locale locale, long version) {
+        Key key = new Key(uri, locale);
+        synchronized (pages) {
+            Page page = pages.get(key);
+            if (page == null) {
+                return null;
+            }
+            if (page.version() != version) {
+                pages.remove(key);
+                return null;
+            }
+            return page;
+        }
+    }
+
+    public void put(String uri, Locale locale, Page page) {
+        synchronized (pages) {
+            pages.put(new Key(uri, locale), page);
+        }
+    }
+
+    public int size() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    @EventListener(MessagesReloadedEvent.class)
+    public void clear() {
+        synchronized (pages) {
+            pages.clear();
+        }
+    }
+
+    private record Key(String uri, Locale locale) {
+    }
+
+    /**
+     * 렌더링 결과 ( 수정 불가, 요청 간에 공유 )
+     * - etag: 컨트롤러가 붙인 ETag, 없으면 본문의 MD5 ( strong ETag, 따옴표 포함 )
+     * - lastModified: Last-Modified 헤더 값 ( 없으면 null )
+     */
+    public record Page(long version, String contentType, byte[] body, String etag, String lastModified) {
+    }
+}
@@ -0,0 +1,49 @@
+package hello.springcoremvc22.web.export;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 내보내기 형식
+ */
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 다운로드 파일 이름 ( baseName.확장자 ) 을 지정하는 Content-Disposition 값
+     */
+    public String contentDisposition(String baseName) {
+        return ContentDisposition.attachment().filename(baseName + "." + extension).build().toString();
+    }
+
+    /**
+     * @return 알 수 없는 형식이면 null
+     */
+    public static ExportFormat of(String format) {
+        for (ExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,308 @@
+package hello.springcoremvc22.web.export;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 한 행씩 NDJSON / CSV 로 쓰는 버퍼
+ *
+ * - 고정 크기 byte[] 버퍼 하나에 UTF-8 로 직접 인코딩하고, 가득 차면 OutputStream 으로 내보낸다.
+ *   => 행 수와 상관없이 버퍼 하나만 사용하고, 행마다 String / byte[] 를 만들지 않는다.
+ * - 사용법: header() 후 행마다 value(...) 를 컬럼 순서대로 호출하고 endRow()
+ *   ( 또는 writeAll(iterator, 행 쓰기) 로 한 번에 )
+ *
+ * NDJSON: {"id":1,"itemName":"itemA",...}
+ * CSV: 첫 줄은 컬럼 이름, 목록은 '|' 로 이어 붙인다. ( RFC 4180 따옴표 규칙 )
+ */
+public class ExportWriter implements Flushable {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final ExportFormat format;
+    private final String[] columns;
+    private final byte[][] columnPrefixes;
+    private final byte[] buffer;
+    private int position;
+    private int column;
+
+    public ExportWriter(OutputStream out, ExportFormat format, String... columns) {
+        this(out, format, DEFAULT_BUFFER_SIZE, columns);
+    }
+
+    public ExportWriter(OutputStream out, ExportFormat format, int bufferSize, String... columns) {
+        this.out = out;
+        this.format = format;
+        this.columns = columns;
+        this.buffer = new byte[Math.max(bufferSize, 64)];
+        this.columnPrefixes = new byte[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            String prefix = (i == 0 ? "{\"" : ",\"") + columns[i] + "\":";
+            columnPrefixes[i] = prefix.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * CSV 면 컬럼 이름 줄을 쓴다. ( NDJSON 은 없음 )
+     */
+    public void header() throws IOException {
+        if (format != ExportFormat.CSV) {
+            return;
+        }
+        for (String name : columns) {
+            value(name);
+        }
+        endRow();
+    }
+
+    /**
+     * 머리줄 + 모든 행 + flush
+     * - rowWriter 는 한 행의 값만 컬럼 순서대로 쓴다. ( endRow 는 여기서 )
+     */
+    public <T> void writeAll(Iterator<? extends T> rows, RowWriter<? super T> rowWriter) throws IOException {
+        header();
+        while (rows.hasNext()) {
+            rowWriter.write(this, rows.next());
+            endRow();
+        }
+        flush();
+    }
+
+    public ExportWriter value(Object value) throws IOException {
+        startValue();
+        if (value == null) {
+            if (format == ExportFormat.NDJSON) {
+                writeAscii("null");
+            }
+        } else if (value instanceof Number number) {
+            writeLong(number.longValue());
+        } else if (value instanceof Boolean bool) {
+            writeAscii(bool ? "true" : "false");
+        } else if (value instanceof Enum<?> enumValue) {
+            writeString(enumValue.name());
+        } else if (value instanceof List<?> list) {
+            writeList(list);
+        } else {
+            writeString(value.toString());
+        }
+        return this;
+    }
+
+    public void endRow() throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            if (column == 0) {
+                writeByte('{');
+            }
+            writeByte('}');
+        }
+        writeByte('\n');
+        column = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        out.flush();
+    }
+
+    private void startValue() throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            byte[] prefix = columnPrefixes[column];
+            for (byte b : prefix) {
+                writeByte(b);
+            }
+        } else if (column > 0) {
+            writeByte(',');
+        }
+        column++;
+    }
+
+    private void writeList(List<?> list) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writeByte('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    writeByte(',');
+                }
+                Object element = list.get(i);
+                if (element == null) {
+                    writeAscii("null");
+                } else {
+                    writeJsonString(element.toString());
+                }
+            }
+            writeByte(']');
+            return;
+        }
+
+        // '|' 로 이어 붙인 값을 만들지 않고, 따옴표가 필요한지 먼저 본 뒤 원소를 바로 쓴다.
+        boolean quote = false;
+        for (int i = 0; i < list.size() && !quote; i++) {
+            quote = needsCsvQuote(String.valueOf(list.get(i)));
+        }
+        if (quote) {
+            writeByte('"');
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) {
+                writeByte('|');
+            }
+            writeCsvChars(String.valueOf(list.get(i)), quote);
+        }
+        if (quote) {
+            writeByte('"');
+        }
+    }
+
+    private void writeString(CharSequence value) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writeJsonString(value);
+        } else {
+            writeCsvString(value);
+        }
+    }
+
+    private void writeJsonString(CharSequence value) throws IOException {
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writeAscii("\\\"");
+                case '\\' -> writeAscii("\\\\");
+                case '\n' -> writeAscii("\\n");
+                case '\r' -> writeAscii("\\r");
+                case '\t' -> writeAscii("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writeAscii("\\u00");
+                        writeByte(Character.forDigit(c >> 4, 16));
+                        writeByte(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        i = writeChar(value, i);
+                    }
+                }
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeCsvString(CharSequence value) throws IOException {
+        boolean quote = needsCsvQuote(value);
+        if (quote) {
+            writeByte('"');
+        }
+        writeCsvChars(value, quote);
+        if (quote) {
+            writeByte('"');
+        }
+    }
+
+    private static boolean needsCsvQuote(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 따옴표 안이면 ( quote ) '"' 를 두 번 쓴다. ( 앞뒤 따옴표는 쓰지 않음 )
+     */
+    private void writeCsvChars(CharSequence value, boolean quote) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            if (quote && value.charAt(i) == '"') {
+                writeByte('"');
+            }
+            i = writeChar(value, i);
+        }
+    }
+
+    /**
+     * index 의 문자를 UTF-8 로 쓰고, 마지막으로 읽은 index 를 반환 ( surrogate pair 는 2 )
+     */
+    private int writeChar(CharSequence value, int index) throws IOException {
+        char c = value.charAt(index);
+        if (c < 0x80) {
+            writeByte(c);
+        } else if (c < 0x800) {
+            writeByte(0xC0 | (c >> 6));
+            writeByte(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            writeByte(0xF0 | (codePoint >> 18));
+            writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+            writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            writeByte(0x80 | (codePoint & 0x3F));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            writeByte('?');
+        } else {
+            writeByte(0xE0 | (c >> 12));
+            writeByte(0x80 | ((c >> 6) & 0x3F));
+            writeByte(0x80 | (c & 0x3F));
+        }
+        return index;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        if (buffer.length - position < 20) {
+            drain();
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private void writeAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            writeByte(value.charAt(i));
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    /**
+     * 한 행의 값을 쓴다. ( 행마다 배열 / 목록을 만들지 않도록 writer 에 바로 쓴다. )
+     */
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(ExportWriter writer, T row) throws IOException;
+    }
+
+    /**
+     * 버퍼만 비운다. ( OutputStream.flush 는 하지 않음 )
+     */
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
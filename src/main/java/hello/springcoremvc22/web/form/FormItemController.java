@@ -1,15 +1,23 @@
 package hello.springcoremvc22.web.form;
 
-import hello.springcoremvc22.domain.item.DeliveryCode;
 import hello.springcoremvc22.domain.item.Item;
 import hello.springcoremvc22.domain.item.ItemRepository;
-import hello.springcoremvc22.domain.item.ItemType;
+import hello.springcoremvc22.domain.item.ItemSearchCond;
+import hello.springcoremvc22.domain.item.ItemStats;
+import hello.springcoremvc22.domain.page.CursorPage;
+import hello.springcoremvc22.web.cache.ItemETags;
+import hello.springcoremvc22.web.export.ExportFormat;
+import hello.springcoremvc22.web.export.ExportWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.*;
@@ -20,48 +28,100 @@ import java.util.*;
 @RequiredArgsConstructor
 public class FormItemController {
     private final ItemRepository itemRepository;
-    private final MessageSource ms;
+    private final FormOptionCatalog formOptionCatalog;
 
-    @ModelAttribute("regions")
-    public Map<String, String> regions(
-            Locale locale
+    /**
+     * 등록 지역, 상품 종류, 배송 방식 선택지
+     * - locale 별로 미리 만들어 둔 카탈로그에서 꺼낸다. ( 요청마다 메시지 조회 / 할당 X )
+     */
+    @ModelAttribute
+    public void options(
+            Locale locale,
+            Model model
     ) {
-        Map<String, String> regions = new LinkedHashMap<>();
-        regions.put("SEOUL", ms.getMessage("option.regions.seoul", null, locale));
-        regions.put("BUSAN", ms.getMessage("option.regions.busan", null, locale));
-        regions.put("JEJU", ms.getMessage("option.regions.jeju", null, locale));
-        return regions;
+        FormOptionCatalog.Options options = formOptionCatalog.get(locale);
+        model.addAttribute("regions", options.getRegions());
+        model.addAttribute("itemTypes", options.getItemTypes());
+        model.addAttribute("deliveryCodes", options.getDeliveryCodes());
     }
 
-    @ModelAttribute("itemTypes")
-    public ItemType[] itemTypes() {
-        return ItemType.values();
+    /**
+     * 커서 기반 페이지 조회
+     * - cursor: 이전 페이지의 마지막 id ( 없으면 첫 페이지 )
+     * - cond: 검색 조건 ( 종류, 지역, 배송 방식, 판매 여부, 가격 범위 )
+     */
+    @GetMapping
+    public String items(
+            @ModelAttribute("cond") ItemSearchCond cond,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size,
+            Locale locale,
+            WebRequest webRequest,
+            Model model
+    ) {
+        if (webRequest.checkNotModified(
+                ItemETags.of(itemRepository.version(), locale), itemRepository.lastModified().toEpochMilli())) {
+            return null;
+        }
+        CursorPage<Item> page = itemRepository.findPage(cond, cursor, size);
+        model.addAttribute("items", page.getContent());
+        model.addAttribute("page", page);
+        return "form/items";
     }
 
-    @ModelAttribute("deliveryCodes")
-    public List<DeliveryCode> deliveryCodes(
-            Locale locale
+    /**
+     * 전체 상품 내보내기 ( format = ndjson | csv )
+     * - 목록을 만들지 않고 저장소를 순회하면서 버퍼 하나로 바로 응답에 쓴다.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format
     ) {
-        List<DeliveryCode> deliveryCodes = new ArrayList<>();
-        deliveryCodes.add(new DeliveryCode("FAST", ms.getMessage("option.deliveryCode.fast", null, locale)));
-        deliveryCodes.add(new DeliveryCode("NORMAL", ms.getMessage("option.deliveryCode.normal", null, locale)));
-        deliveryCodes.add(new DeliveryCode("SLOW", ms.getMessage("option.deliveryCode.slow", null, locale)));
-        return deliveryCodes;
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> new ExportWriter(out, exportFormat,
+                "id", "itemName", "price", "quantity", "open", "regions", "itemType", "deliveryCode"
+        ).writeAll(itemRepository.iterator(), (writer, item) -> writer.value(item.getId())
+                .value(item.getItemName())
+                .value(item.getPrice())
+                .value(item.getQuantity())
+                .value(item.getOpen())
+                .value(item.getRegions())
+                .value(item.getItemType())
+                .value(item.getDeliveryCode()));
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.contentDisposition("form-items"))
+                .body(body);
     }
 
-    @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
-        return "form/items";
+    /**
+     * 전체 집계 ( JSON, ETag = 집계한 버전 )
+     * - 바뀐 상품이 없으면 저장소가 캐시해 둔 집계를 그대로 쓴다.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ItemStats> stats() {
+        ItemStats stats = itemRepository.stats();
+        return ResponseEntity.ok()
+                .eTag(ItemETags.of(stats.getVersion()))
+                .body(stats);
     }
 
     @GetMapping("/{itemId}")
     public String item(
             @PathVariable long itemId,
+            Locale locale,
+            WebRequest webRequest,
             Model model
     ) {
         Item item = itemRepository.findById(itemId);
+        if (item != null && webRequest.checkNotModified(
+                ItemETags.of(item.getVersion(), locale), item.getLastModified().toEpochMilli())) {
+            return null;
+        }
         model.addAttribute("item", item);
         return "form/item";
     }
@@ -98,9 +158,18 @@ public class FormItemController {
     @PostMapping("/{itemId}/edit")
     public String edit(
             @PathVariable long itemId,
-            @ModelAttribute Item item
+            @ModelAttribute Item item,
+            BindingResult bindingResult
     ) {
-        itemRepository.update(itemId, item);
+        if (bindingResult.hasErrors()) {
+            return "form/editForm";
+        }
+
+        // 수정 폼을 연 뒤 다른 요청이 먼저 수정했으면 ( 버전이 다르면 ) 다시 입력 폼으로
+        if (!itemRepository.update(itemId, item)) {
+            bindingResult.reject("stale");
+            return "form/editForm";
+        }
         return "redirect:/form/items/{itemId}";
     }
 }
@@ -0,0 +1,80 @@
+package hello.springcoremvc22.web.form;
+
+import hello.springcoremvc22.domain.item.DeliveryCode;
+import hello.springcoremvc22.domain.item.ItemType;
+import hello.springcoremvc22.message.MessagesReloadedEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 등록 지역, 상품 종류, 배송 방식 선택지를 locale 별로 한 번만 만들어 두는 카탈로그
+ * - 처음 요청된 locale 에서 만들고, 이후에는 맵 조회 한 번으로 끝난다.
+ * - 메시지 번들이 다시 로드되면 ( MessagesReloadedEvent ) 새로 만든다.
+ * - ?lang= 으로 아무 locale 이나 들어올 수 있으므로 MAX_LOCALES 개까지만 캐시한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class FormOptionCatalog {
+    static final int MAX_LOCALES = 32;
+
+    private final MessageSource ms;
+
+    /**
+     * 다시 로드할 때는 맵을 통째로 바꾼다.
+     * => 교체 전에 시작한 생성 결과가 새 맵에 들어가지 않는다.
+     */
+    private volatile ConcurrentMap<Locale, Options> catalogs = new ConcurrentHashMap<>();
+
+    public Options get(Locale locale) {
+        ConcurrentMap<Locale, Options> current = catalogs;
+        Options options = current.get(locale);
+        if (options != null) {
+            return options;
+        }
+        if (current.size() >= MAX_LOCALES) {
+            return create(locale);
+        }
+        return current.computeIfAbsent(locale, this::create);
+    }
+
+    @EventListener(MessagesReloadedEvent.class)
+    public void reload() {
+        catalogs = new ConcurrentHashMap<>();
+    }
+
+    private Options create(Locale locale) {
+        Map<String, String> regions = new LinkedHashMap<>();
+        regions.put("SEOUL", ms.getMessage("option.regions.seoul", null, locale));
+        regions.put("BUSAN", ms.getMessage("option.regions.busan", null, locale));
+        regions.put("JEJU", ms.getMessage("option.regions.jeju", null, locale));
+
+        List<DeliveryCode> deliveryCodes = new ArrayList<>();
+        deliveryCodes.add(new DeliveryCode("FAST", ms.getMessage("option.deliveryCode.fast", null, locale)));
+        deliveryCodes.add(new DeliveryCode("NORMAL", ms.getMessage("option.deliveryCode.normal", null, locale)));
+        deliveryCodes.add(new DeliveryCode("SLOW", ms.getMessage("option.deliveryCode.slow", null, locale)));
+
+        return new Options(
+                Collections.unmodifiableMap(regions),
+                List.of(ItemType.values()),
+                Collections.unmodifiableList(deliveryCodes)
+        );
+    }
+
+    /**
+     * 한 locale 의 선택지 ( 수정 불가, 요청 간에 공유 )
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Options {
+        private final Map<String, String> regions;
+        private final List<ItemType> itemTypes;
+        private final List<DeliveryCode> deliveryCodes;
+    }
+}
@@ -0,0 +1,183 @@
+package hello.springcoremvc22.web.locale;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.LocaleResolver;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 세션 없이 locale 을 정하는 LocaleResolver
+ *
+ * 1. 서명한 쿠키 ( ?lang= 으로 바꾼 locale, 값: {언어 태그}.{HMAC-SHA256} )
+ * 2. Accept-Language 헤더
+ * 3. defaultLocale
+ *
+ * - 서명이 맞지 않는 쿠키는 무시한다.
+ * - 검증한 쿠키 값, 파싱한 헤더 값은 MAX_CACHED 개까지 캐시한다. ( 같은 값이면 맵 조회 한 번 )
+ * - 한 요청 안에서는 결과를 요청 속성에 두고 다시 계산하지 않는다.
+ */
+public class SignedCookieLocaleResolver implements LocaleResolver {
+    public static final String DEFAULT_COOKIE_NAME = "lang";
+    static final int MAX_CACHED = 1024;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String LOCALE_ATTRIBUTE = SignedCookieLocaleResolver.class.getName() + ".LOCALE";
+
+    private final SecretKeySpec key;
+    private final Locale defaultLocale;
+    private String cookieName = DEFAULT_COOKIE_NAME;
+    private Duration cookieMaxAge = Duration.ofDays(365);
+
+    private final ConcurrentMap<String, Locale> cookies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Locale> headers = new ConcurrentHashMap<>();
+
+    public SignedCookieLocaleResolver(byte[] secret, Locale defaultLocale) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.defaultLocale = defaultLocale;
+    }
+
+    public void setCookieName(String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    public void setCookieMaxAge(Duration cookieMaxAge) {
+        this.cookieMaxAge = cookieMaxAge;
+    }
+
+    @Override
+    public Locale resolveLocale(HttpServletRequest request) {
+        if (request.getAttribute(LOCALE_ATTRIBUTE) instanceof Locale locale) {
+            return locale;
+        }
+        Locale locale = fromCookie(request);
+        if (locale == null) {
+            locale = fromHeader(request.getHeader(HttpHeaders.ACCEPT_LANGUAGE));
+        }
+        request.setAttribute(LOCALE_ATTRIBUTE, locale);
+        return locale;
+    }
+
+    /**
+     * locale 이 null 이면 쿠키를 지운다. ( Accept-Language 로 돌아감 )
+     */
+    @Override
+    public void setLocale(HttpServletRequest request, HttpServletResponse response, Locale locale) {
+        request.setAttribute(LOCALE_ATTRIBUTE,
+                locale != null ? locale : fromHeader(request.getHeader(HttpHeaders.ACCEPT_LANGUAGE)));
+        if (response == null) {
+            return;
+        }
+
+        ResponseCookie.ResponseCookieBuilder cookie;
+        if (locale == null) {
+            cookie = ResponseCookie.from(cookieName, "").maxAge(Duration.ZERO);
+        } else {
+            String tag = locale.toLanguageTag();
+            cookie = ResponseCookie.from(cookieName, tag + "." + sign(tag)).maxAge(cookieMaxAge);
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.path("/").httpOnly(true).sameSite("Lax").build().toString());
+    }
+
+    private Locale fromCookie(HttpServletRequest request) {
+        Cookie[] requestCookies = request.getCookies();
+        if (requestCookies == null) {
+            return null;
+        }
+        for (Cookie cookie : requestCookies) {
+            if (cookieName.equals(cookie.getName())) {
+                return verify(cookie.getValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 서명이 맞지 않으면 null ( 잘못된 값은 캐시하지 않는다. )
+     */
+    Locale verify(String value) {
+        if (value == null) {
+            return null;
+        }
+        Locale cached = cookies.get(value);
+        if (cached != null) {
+            return cached;
+        }
+
+        int dot = value.lastIndexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String tag = value.substring(0, dot);
+        byte[] expected = sign(tag).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = value.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+
+        Locale locale = Locale.forLanguageTag(tag);
+        if (cookies.size() < MAX_CACHED) {
+            cookies.put(value, locale);
+        }
+        return locale;
+    }
+
+    /**
+     * Accept-Language 에서 우선순위가 가장 높은 locale ( 없거나 잘못된 값이면 defaultLocale )
+     */
+    Locale fromHeader(String header) {
+        if (!StringUtils.hasText(header)) {
+            return defaultLocale;
+        }
+        Locale cached = headers.get(header);
+        if (cached != null) {
+            return cached;
+        }
+
+        Locale locale = defaultLocale;
+        try {
+            List<Locale.LanguageRange> ranges = Locale.LanguageRange.parse(header);
+            for (Locale.LanguageRange range : ranges) {
+                if (!range.getRange().contains("*") && range.getWeight() > 0) {
+                    locale = Locale.forLanguageTag(range.getRange());
+                    break;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // 잘못된 헤더는 defaultLocale
+        }
+
+        if (headers.size() < MAX_CACHED) {
+            headers.put(header, locale);
+        }
+        return locale;
+    }
+
+    /**
+     * Mac 은 스레드 안전하지 않으므로 호출마다 만든다. ( 검증 결과는 캐시되므로 자주 불리지 않는다. )
+     */
+    String sign(String tag) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(tag.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
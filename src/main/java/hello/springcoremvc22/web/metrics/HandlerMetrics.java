@@ -0,0 +1,49 @@
+package hello.springcoremvc22.web.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 핸들러 하나의 구간별 히스토그램 + 검증 실패 횟수 ( 오류 코드별 )
+ */
+public class HandlerMetrics {
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.VALUES.length];
+    private final ConcurrentMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    HandlerMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    void record(Phase phase, long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    void failure(String code) {
+        failures.computeIfAbsent(code, c -> new LongAdder()).increment();
+    }
+
+    /**
+     * 기록이 있는 구간만 ( 구간 이름 소문자 )
+     */
+    public Map<String, LatencyHistogram.Snapshot> phases() {
+        Map<String, LatencyHistogram.Snapshot> phases = new TreeMap<>();
+        for (Phase phase : Phase.VALUES) {
+            LatencyHistogram.Snapshot snapshot = histograms[phase.ordinal()].snapshot();
+            if (snapshot.count() > 0) {
+                phases.put(phase.name().toLowerCase(), snapshot);
+            }
+        }
+        return phases;
+    }
+
+    public Map<String, Long> failures() {
+        Map<String, Long> counts = new TreeMap<>();
+        failures.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,94 @@
+package hello.springcoremvc22.web.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 지연 시간 히스토그램 ( HDR 방식, lock-free )
+ * - 2 의 거듭제곱 구간마다 16 칸으로 나눈다. => 어느 크기든 오차 1/16 ( 6.25% ) 이내, 칸은 960 개로 고정
+ * - 기록은 칸 하나 + 합계 / 개수 / 최대값 갱신뿐 ( 할당 X, 잠금 X )
+ * - 조회 ( snapshot ) 는 칸을 복사해서 백분위를 계산한다. ( 기록을 멈추지 않는다. )
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long maxValue = max.get();
+        return new Snapshot(
+                total,
+                total == 0 ? 0 : micros(sum.sum() / Math.max(count.sum(), 1)),
+                micros(percentile(copy, total, 0.50, maxValue)),
+                micros(percentile(copy, total, 0.90, maxValue)),
+                micros(percentile(copy, total, 0.99, maxValue)),
+                micros(percentile(copy, total, 0.999, maxValue)),
+                micros(maxValue)
+        );
+    }
+
+    static int index(long value) {
+        if (value < SUB) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) - SUB);
+    }
+
+    /**
+     * 칸에 들어가는 가장 큰 값
+     */
+    static long upperBound(int index) {
+        if (index < SUB) {
+            return index;
+        }
+        int shift = (index >>> SUB_BITS) - 1;
+        long mantissa = SUB + (index & (SUB - 1));
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static double micros(long nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+
+    /**
+     * 기록 개수 + 평균 / 백분위 / 최대값 ( 단위: µs )
+     */
+    public record Snapshot(long count, double mean, double p50, double p90, double p99, double p999, double max) {
+    }
+}
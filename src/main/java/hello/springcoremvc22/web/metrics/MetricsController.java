@@ -0,0 +1,41 @@
+package hello.springcoremvc22.web.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+
+/**
+ * 핸들러별 구간 지연 시간 ( µs ) + 검증 실패 횟수
+ * - 같은 서버에서의 요청 ( loopback ) 만 허용한다. 그 외에는 404
+ */
+@RestController
+@ConditionalOnProperty(name = "metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsController {
+    private final RequestMetrics requestMetrics;
+
+    public MetricsController(RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
+    @GetMapping("/internal/metrics")
+    public ResponseEntity<Map<String, Map<String, Object>>> metrics(HttpServletRequest request) {
+        if (!isLoopback(request.getRemoteAddr())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(requestMetrics.snapshot());
+    }
+
+    private static boolean isLoopback(String address) {
+        try {
+            return InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package hello.springcoremvc22.web.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * 컨트롤러 요청의 구간 시간을 RequestMetrics 에 기록
+ * - preHandle: 시작, postHandle: 렌더링 시작, afterCompletion: 기록
+ * - 요청마다 작은 RequestTrace 하나 + nanoTime 몇 번 + 히스토그램 칸 증가만 한다.
+ * - trace 는 preHandle 에서 스레드에 걸고 afterCompletion 에서 떼어 낸다. ( 가상 스레드에서도 스레드마다 남지 않는다. )
+ */
+public class MetricsInterceptor implements AsyncHandlerInterceptor {
+    private final RequestMetrics metrics;
+
+    public MetricsInterceptor(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            RequestTrace.begin(metrics.handler(handlerMethod.getMethod()));
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        RequestTrace.current().renderStarted();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestTrace.end();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTrace.discard();
+    }
+}
@@ -0,0 +1,16 @@
+package hello.springcoremvc22.web.metrics;
+
+/**
+ * 요청 처리 구간
+ * - BINDING: 요청 파라미터 -> 객체 ( @ModelAttribute )
+ * - VALIDATION: @Validated / @Valid ( @TotalPriceMin 같은 클래스 레벨 검증 포함 )
+ * - HANDLER: 컨트롤러 메서드 실행 ( REPOSITORY 포함 )
+ * - REPOSITORY: 저장소 메서드 호출 합계
+ * - RENDER: 뷰 렌더링 ( 컨트롤러 반환 후 ~ 응답 완료 )
+ * - TOTAL: 인터셉터 preHandle ~ afterCompletion
+ */
+public enum Phase {
+    BINDING, VALIDATION, HANDLER, REPOSITORY, RENDER, TOTAL;
+
+    static final Phase[] VALUES = values();
+}
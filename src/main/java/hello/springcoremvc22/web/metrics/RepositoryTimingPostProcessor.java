@@ -0,0 +1,38 @@
+package hello.springcoremvc22.web.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Repository;
+
+/**
+ * @Repository 빈을 감싸서 저장소 호출 시간을 REPOSITORY 구간에 더한다.
+ * - 클래스 프록시 ( 저장소는 인터페이스가 없다. )
+ * - 요청 밖 ( 시작 시 복구, 벤치마크 등 ) 에서는 시간을 재지 않고 그대로 호출한다.
+ */
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+    private static final MethodInterceptor TIMER = invocation -> {
+        RequestTrace trace = RequestTrace.current();
+        if (!trace.isActive()) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            trace.add(Phase.REPOSITORY, System.nanoTime() - start);
+        }
+    };
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (AnnotationUtils.findAnnotation(bean.getClass(), Repository.class) == null) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(TIMER);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+}
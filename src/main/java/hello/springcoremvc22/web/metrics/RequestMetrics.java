@@ -0,0 +1,38 @@
+package hello.springcoremvc22.web.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 핸들러별 지표 저장소
+ * - 핸들러 이름: 컨트롤러#메서드 ( 예: ValidationItemControllerV3#addItem )
+ */
+public class RequestMetrics {
+    private final ConcurrentMap<Method, Entry> handlers = new ConcurrentHashMap<>();
+
+    HandlerMetrics handler(Method method) {
+        return handlers.computeIfAbsent(method,
+                m -> new Entry(m.getDeclaringClass().getSimpleName() + "#" + m.getName(), new HandlerMetrics())
+        ).metrics();
+    }
+
+    /**
+     * 핸들러 이름 -> { phases, failures } ( 이름 순 )
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        for (Entry entry : handlers.values()) {
+            snapshot.put(entry.name(), Map.of(
+                    "phases", entry.metrics().phases(),
+                    "failures", entry.metrics().failures()
+            ));
+        }
+        return snapshot;
+    }
+
+    private record Entry(String name, HandlerMetrics metrics) {
+    }
+}
@@ -0,0 +1,102 @@
+package hello.springcoremvc22.web.metrics;
+
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.ObjectError;
+
+import java.util.List;
+
+/**
+ * 요청 하나의 구간 시간
+ * - MetricsInterceptor 가 요청마다 만들어 스레드에 걸고 ( begin ), 기록한 뒤 떼어 낸다. ( end / discard )
+ *   => 스레드에 남지 않는다. ( 요청마다 새 가상 스레드여도 스레드마다 trace / ThreadLocal 항목이 쌓이지 않는다. )
+ * - 시작하지 않은 스레드 ( 인터셉터 밖, 지표 비활성 ) 에서는 INACTIVE ( 아무것도 하지 않는 공용 trace ) 를 준다.
+ */
+final class RequestTrace {
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final RequestTrace INACTIVE = new RequestTrace(null);
+
+    private final long[] phases = new long[Phase.VALUES.length];
+    private final HandlerMetrics handler;
+    private final long start;
+    private long renderStart;
+
+    private RequestTrace(HandlerMetrics handler) {
+        this.handler = handler;
+        this.start = System.nanoTime();
+    }
+
+    static RequestTrace current() {
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? INACTIVE : trace;
+    }
+
+    static void begin(HandlerMetrics handler) {
+        CURRENT.set(new RequestTrace(handler));
+    }
+
+    /**
+     * 구간 시간을 히스토그램에 기록하고 스레드에서 떼어 낸다.
+     */
+    static void end() {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            CURRENT.remove();
+            trace.record();
+        }
+    }
+
+    /**
+     * 기록하지 않고 버린다. ( 비동기 요청: 첫 디스패치는 응답 전에 끝난다. )
+     */
+    static void discard() {
+        CURRENT.remove();
+    }
+
+    boolean isActive() {
+        return handler != null;
+    }
+
+    void add(Phase phase, long nanos) {
+        if (handler != null) {
+            phases[phase.ordinal()] += nanos;
+        }
+    }
+
+    void renderStarted() {
+        if (handler != null) {
+            renderStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * 바인딩 / 검증에서 새로 생긴 오류 ( 이전 개수 이후 ) 의 코드를 센다.
+     */
+    void failures(BindingResult bindingResult, int fieldErrorsBefore, int globalErrorsBefore) {
+        if (handler == null) {
+            return;
+        }
+        count(bindingResult.getFieldErrors(), fieldErrorsBefore);
+        count(bindingResult.getGlobalErrors(), globalErrorsBefore);
+    }
+
+    private void record() {
+        long now = System.nanoTime();
+        if (renderStart != 0) {
+            phases[Phase.RENDER.ordinal()] = now - renderStart;
+        }
+        phases[Phase.TOTAL.ordinal()] = now - start;
+        for (Phase phase : Phase.VALUES) {
+            long nanos = phases[phase.ordinal()];
+            if (nanos != 0) {
+                handler.record(phase, nanos);
+            }
+        }
+    }
+
+    private void count(List<? extends ObjectError> errors, int from) {
+        for (int i = from; i < errors.size(); i++) {
+            String code = errors.get(i).getCode();
+            handler.failure(code == null ? "unknown" : code);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package hello.springcoremvc22.web.metrics;
+
+import jakarta.servlet.ServletRequest;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.ServletRequestDataBinder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.InvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.ExtendedServletRequestDataBinder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.ServletRequestDataBinderFactory;
+
+import java.util.List;
+
+/**
+ * 바인딩 / 검증 / 컨트롤러 실행 시간을 재는 RequestMappingHandlerAdapter
+ * - 바인딩, 검증: 요청마다 만드는 DataBinder 의 bind() / validate() ( @ModelAttribute, @RequestBody 검증 모두 )
+ * - 컨트롤러 실행: 인자를 모두 만든 뒤의 메서드 호출 ( doInvoke )
+ * - 진행 중인 RequestTrace 가 없으면 ( 지표 비활성 ) 시간만 재고 버린다.
+ */
+public class TimedRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        return new ServletInvocableHandlerMethod(handlerMethod) {
+            @Override
+            protected Object doInvoke(Object... args) throws Exception {
+                long start = System.nanoTime();
+                try {
+                    return super.doInvoke(args);
+                } finally {
+                    RequestTrace.current().add(Phase.HANDLER, System.nanoTime() - start);
+                }
+            }
+        };
+    }
+
+    @Override
+    protected WebDataBinderFactory createDataBinderFactory(List<InvocableHandlerMethod> binderMethods) {
+        return new ServletRequestDataBinderFactory(binderMethods, getWebBindingInitializer()) {
+            @Override
+            protected ServletRequestDataBinder createBinderInstance(Object target, String objectName, NativeWebRequest request) {
+                return new TimedDataBinder(target, objectName);
+            }
+        };
+    }
+
+    private static final class TimedDataBinder extends ExtendedServletRequestDataBinder {
+        TimedDataBinder(Object target, String objectName) {
+            super(target, objectName);
+        }
+
+        @Override
+        public void bind(ServletRequest request) {
+            long start = System.nanoTime();
+            int fieldErrors = getBindingResult().getFieldErrorCount();
+            int globalErrors = getBindingResult().getGlobalErrorCount();
+            try {
+                super.bind(request);
+            } finally {
+                finish(Phase.BINDING, start, fieldErrors, globalErrors);
+            }
+        }
+
+        @Override
+        public void validate() {
+            long start = System.nanoTime();
+            int fieldErrors = getBindingResult().getFieldErrorCount();
+            int globalErrors = getBindingResult().getGlobalErrorCount();
+            try {
+                super.validate();
+            } finally {
+                finish(Phase.VALIDATION, start, fieldErrors, globalErrors);
+            }
+        }
+
+        @Override
+        public void validate(Object... validationHints) {
+            long start = System.nanoTime();
+            int fieldErrors = getBindingResult().getFieldErrorCount();
+            int globalErrors = getBindingResult().getGlobalErrorCount();
+            try {
+                super.validate(validationHints);
+            } finally {
+                finish(Phase.VALIDATION, start, fieldErrors, globalErrors);
+            }
+        }
+
+        private void finish(Phase phase, long start, int fieldErrors, int globalErrors) {
+            RequestTrace trace = RequestTrace.current();
+            trace.add(phase, System.nanoTime() - start);
+            BindingResult bindingResult = getBindingResult();
+            if (bindingResult.getFieldErrorCount() != fieldErrors || bindingResult.getGlobalErrorCount() != globalErrors) {
+                trace.failures(bindingResult, fieldErrors, globalErrors);
+            }
+        }
+    }
+}
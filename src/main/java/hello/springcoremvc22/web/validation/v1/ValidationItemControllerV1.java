@@ -1,17 +1,20 @@
 package hello.springcoremvc22.web.validation.v1;
 
+import hello.springcoremvc22.domain.page.CursorPage;
 import hello.springcoremvc22.domain.validation.Item;
 import hello.springcoremvc22.domain.validation.ItemRepository;
+import hello.springcoremvc22.web.cache.ItemETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.HashMap;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @Slf4j
@@ -21,19 +24,40 @@ import java.util.Map;
 public class ValidationItemControllerV1 {
     private final ItemRepository itemRepository;
 
+    /**
+     * 커서 기반 페이지 조회
+     * - cursor: 이전 페이지의 마지막 id ( 없으면 첫 페이지 )
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size,
+            Locale locale,
+            WebRequest webRequest,
+            Model model
+    ) {
+        if (webRequest.checkNotModified(
+                ItemETags.of(itemRepository.version(), locale), itemRepository.lastModified().toEpochMilli())) {
+            return null;
+        }
+        CursorPage<Item> page = itemRepository.findPage(cursor, size);
+        model.addAttribute("items", page.getContent());
+        model.addAttribute("page", page);
         return "validation/v1/items";
     }
 
     @GetMapping("/{itemId}")
     public String item(
             @PathVariable long itemId,
+            Locale locale,
+            WebRequest webRequest,
             Model model
     ) {
         Item item = itemRepository.findById(itemId);
+        if (item != null && webRequest.checkNotModified(
+                ItemETags.of(item.getVersion(), locale), item.getLastModified().toEpochMilli())) {
+            return null;
+        }
         model.addAttribute("item", item);
         return "validation/v1/item";
     }
@@ -100,9 +124,16 @@ public class ValidationItemControllerV1 {
     @PostMapping("/{itemId}/edit")
     public String edit(
             @PathVariable long itemId,
-            @ModelAttribute Item item
+            @ModelAttribute Item item,
+            Model model
     ) {
-        itemRepository.update(itemId, item);
+        // 수정 폼을 연 뒤 다른 요청이 먼저 수정했으면 ( 버전이 다르면 ) 다시 입력 폼으로
+        if (!itemRepository.update(itemId, item)) {
+            Map<String, String> errors = new HashMap<>();
+            errors.put("globalError", "다른 사용자가 먼저 상품을 수정했습니다. 상품을 다시 불러온 뒤 수정해주세요.");
+            model.addAttribute("errors", errors);
+            return "validation/v1/editForm";
+        }
         return "redirect:/validation/v1/items/{itemId}";
     }
 }
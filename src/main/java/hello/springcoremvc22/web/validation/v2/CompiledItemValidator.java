@@ -0,0 +1,115 @@
+package hello.springcoremvc22.web.validation.v2;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.validation.TotalPriceMinValidator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ItemValidator 와 같은 규칙을 미리 컴파일한 검증기
+ * - 필드는 getter 로 직접 읽는다. ( BeanWrapper 를 통한 리플렉션 X )
+ * - 오류 코드 배열은 objectName 별로 한 번만 만들고, 인자 배열은 상수를 쓴다.
+ * - 오류가 없으면 아무것도 할당하지 않는다.
+ *
+ * 만들어지는 FieldError / ObjectError 의 코드, 인자, rejectedValue 는 ItemValidator 와 같다.
+ * 기본 MessageCodesResolver 를 쓰는 BindingResult 가 아니면 ItemValidator 로 검증한다.
+ */
+@Component
+public class CompiledItemValidator implements Validator {
+    static final int PRICE_MIN = 1000;
+    static final int PRICE_MAX = 1000000;
+    static final int QUANTITY_MAX = 9999;
+    static final int TOTAL_PRICE_MIN = 10000;
+
+    private static final Object[] PRICE_RANGE_ARGS = {PRICE_MIN, PRICE_MAX};
+    private static final Object[] QUANTITY_MAX_ARGS = {QUANTITY_MAX};
+
+    private static final MessageCodesResolver CODES_RESOLVER = new DefaultMessageCodesResolver();
+
+    private final ItemValidator fallback = new ItemValidator();
+    private final ConcurrentMap<String, ErrorCodes> errorCodes = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return Item.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (!(errors instanceof AbstractBindingResult bindingResult) || !isDefault(bindingResult)) {
+            fallback.validate(target, errors);
+            return;
+        }
+
+        Item item = (Item) target;
+        String itemName = item.getItemName();
+        Integer price = item.getPrice();
+        Integer quantity = item.getQuantity();
+
+        if (!StringUtils.hasText(itemName)) {
+            ErrorCodes codes = errorCodes(bindingResult.getObjectName());
+            bindingResult.addError(new FieldError(codes.objectName, "itemName", itemName, false,
+                    codes.itemNameRequired, null, null));
+        }
+
+        if (price == null || price < PRICE_MIN || price > PRICE_MAX) {
+            ErrorCodes codes = errorCodes(bindingResult.getObjectName());
+            bindingResult.addError(new FieldError(codes.objectName, "price", price, false,
+                    codes.priceRange, PRICE_RANGE_ARGS, null));
+        }
+
+        if (quantity == null || quantity >= QUANTITY_MAX) {
+            ErrorCodes codes = errorCodes(bindingResult.getObjectName());
+            bindingResult.addError(new FieldError(codes.objectName, "quantity", quantity, false,
+                    codes.quantityMax, QUANTITY_MAX_ARGS, null));
+        }
+
+        // 특정 필드가 아닌 복합 룰 검증
+        if (price != null && quantity != null) {
+            long resultPrice = TotalPriceMinValidator.totalPrice(price, quantity);
+            if (resultPrice < TOTAL_PRICE_MIN) {
+                ErrorCodes codes = errorCodes(bindingResult.getObjectName());
+                bindingResult.addError(new ObjectError(codes.objectName,
+                        codes.totalPriceMin, new Object[]{TOTAL_PRICE_MIN, resultPrice}, null));
+            }
+        }
+    }
+
+    /**
+     * 직접 만든 코드 배열이 rejectValue() 와 같으려면
+     * - 중첩 경로가 없고
+     * - 기본 설정의 DefaultMessageCodesResolver 를 써야 한다.
+     */
+    private static boolean isDefault(AbstractBindingResult bindingResult) {
+        return bindingResult.getNestedPath().isEmpty()
+                && bindingResult.getMessageCodesResolver().getClass() == DefaultMessageCodesResolver.class;
+    }
+
+    private ErrorCodes errorCodes(String objectName) {
+        return errorCodes.computeIfAbsent(objectName, ErrorCodes::new);
+    }
+
+    /**
+     * objectName 별 오류 코드 배열
+     * - 예) required.item.itemName, required.itemName, required.java.lang.String, required
+     */
+    private static class ErrorCodes {
+        final String objectName;
+        final String[] itemNameRequired;
+        final String[] priceRange;
+        final String[] quantityMax;
+        final String[] totalPriceMin;
+
+        ErrorCodes(String objectName) {
+            this.objectName = objectName;
+            this.itemNameRequired = CODES_RESOLVER.resolveMessageCodes("required", objectName, "itemName", String.class);
+            this.priceRange = CODES_RESOLVER.resolveMessageCodes("range", objectName, "price", Integer.class);
+            this.quantityMax = CODES_RESOLVER.resolveMessageCodes("max", objectName, "quantity", Integer.class);
+            this.totalPriceMin = CODES_RESOLVER.resolveMessageCodes("totalPriceMin", objectName);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package hello.springcoremvc22.web.validation.v2;
 
 import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.validation.TotalPriceMinValidator;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.ValidationUtils;
@@ -40,7 +41,7 @@ public class ItemValidator implements Validator {
 
         // 특정 필드가 아닌 복합 룰 검증
         if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
+            long resultPrice = TotalPriceMinValidator.totalPrice(item.getPrice(), item.getQuantity());
             if (resultPrice < 10000) {
                 errors.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
             }
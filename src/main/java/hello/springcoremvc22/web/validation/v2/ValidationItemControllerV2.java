@@ -1,7 +1,9 @@
 package hello.springcoremvc22.web.validation.v2;
 
+import hello.springcoremvc22.domain.page.CursorPage;
 import hello.springcoremvc22.domain.validation.Item;
 import hello.springcoremvc22.domain.validation.ItemRepository;
+import hello.springcoremvc22.web.cache.ItemETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -10,9 +12,10 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
+import java.util.Locale;
 
 @Slf4j
 @Controller
@@ -20,26 +23,50 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ValidationItemControllerV2 {
     private final ItemRepository itemRepository;
-    private final ItemValidator itemValidator;
+    private final CompiledItemValidator itemValidator;
 
+    /**
+     * ItemValidator 와 같은 규칙 / 오류 코드를 쓰는 컴파일된 검증기 사용
+     */
     @InitBinder
     public void init(WebDataBinder dataBinder) {
         dataBinder.addValidators(itemValidator);
     }
 
+    /**
+     * 커서 기반 페이지 조회
+     * - cursor: 이전 페이지의 마지막 id ( 없으면 첫 페이지 )
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size,
+            Locale locale,
+            WebRequest webRequest,
+            Model model
+    ) {
+        if (webRequest.checkNotModified(
+                ItemETags.of(itemRepository.version(), locale), itemRepository.lastModified().toEpochMilli())) {
+            return null;
+        }
+        CursorPage<Item> page = itemRepository.findPage(cursor, size);
+        model.addAttribute("items", page.getContent());
+        model.addAttribute("page", page);
         return "validation/v2/items";
     }
 
     @GetMapping("/{itemId}")
     public String item(
             @PathVariable long itemId,
+            Locale locale,
+            WebRequest webRequest,
             Model model
     ) {
         Item item = itemRepository.findById(itemId);
+        if (item != null && webRequest.checkNotModified(
+                ItemETags.of(item.getVersion(), locale), item.getLastModified().toEpochMilli())) {
+            return null;
+        }
         model.addAttribute("item", item);
         return "validation/v2/item";
     }
@@ -89,8 +116,11 @@ public class ValidationItemControllerV2 {
             return "validation/v2/editForm";
         }
 
-        // 성공 로직
-        itemRepository.update(itemId, item);
+        // 수정 폼을 연 뒤 다른 요청이 먼저 수정했으면 ( 버전이 다르면 ) 다시 입력 폼으로
+        if (!itemRepository.update(itemId, item)) {
+            bindingResult.reject("stale");
+            return "validation/v2/editForm";
+        }
         return "redirect:/validation/v2/items/{itemId}";
     }
 }
@@ -1,9 +1,11 @@
 package hello.springcoremvc22.web.validation.v3;
 
+import hello.springcoremvc22.domain.page.CursorPage;
 import hello.springcoremvc22.domain.validation.Item;
 import hello.springcoremvc22.domain.validation.ItemRepository;
 import hello.springcoremvc22.domain.validation.SaveCheck;
 import hello.springcoremvc22.domain.validation.UpdateCheck;
+import hello.springcoremvc22.web.cache.ItemETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -11,9 +13,10 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
+import java.util.Locale;
 
 @Slf4j
 @Controller
@@ -22,19 +25,40 @@ import java.util.List;
 public class ValidationItemControllerV3 {
     private final ItemRepository itemRepository;
 
+    /**
+     * 커서 기반 페이지 조회
+     * - cursor: 이전 페이지의 마지막 id ( 없으면 첫 페이지 )
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size,
+            Locale locale,
+            WebRequest webRequest,
+            Model model
+    ) {
+        if (webRequest.checkNotModified(
+                ItemETags.of(itemRepository.version(), locale), itemRepository.lastModified().toEpochMilli())) {
+            return null;
+        }
+        CursorPage<Item> page = itemRepository.findPage(cursor, size);
+        model.addAttribute("items", page.getContent());
+        model.addAttribute("page", page);
         return "validation/v3/items";
     }
 
     @GetMapping("/{itemId}")
     public String item(
             @PathVariable long itemId,
+            Locale locale,
+            WebRequest webRequest,
             Model model
     ) {
         Item item = itemRepository.findById(itemId);
+        if (item != null && webRequest.checkNotModified(
+                ItemETags.of(item.getVersion(), locale), item.getLastModified().toEpochMilli())) {
+            return null;
+        }
         model.addAttribute("item", item);
         return "validation/v3/item";
     }
@@ -51,13 +75,7 @@ public class ValidationItemControllerV3 {
             BindingResult bindingResult,
             RedirectAttributes redirectAttributes
     ) {
-        // 특정 필드가 아닌 복합 룰 검증
-        if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
+        // 복합 룰 ( 가격 * 수량 ) 은 클래스 레벨 @TotalPriceMin 으로 함께 검증된다.
 
         // 검증에 실패하면 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
@@ -87,21 +105,18 @@ public class ValidationItemControllerV3 {
             @Validated(UpdateCheck.class) @ModelAttribute Item item,
             BindingResult bindingResult
     ) {
-        // 특정 필드가 아닌 복합 룰 검증
-        if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
+        // 복합 룰 ( 가격 * 수량 ) 은 클래스 레벨 @TotalPriceMin 으로 함께 검증된다.
 
         // 검증에 실패하면 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             return "validation/v3/editForm";
         }
 
-        // 성공 로직
-        itemRepository.update(itemId, item);
+        // 수정 폼을 연 뒤 다른 요청이 먼저 수정했으면 ( 버전이 다르면 ) 다시 입력 폼으로
+        if (!itemRepository.update(itemId, item)) {
+            bindingResult.reject("stale");
+            return "validation/v3/editForm";
+        }
         return "redirect:/validation/v3/items/{itemId}";
     }
 }
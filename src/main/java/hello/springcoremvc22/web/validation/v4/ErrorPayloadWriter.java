@@ -0,0 +1,77 @@
+package hello.springcoremvc22.web.validation.v4;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검증 오류 응답 본문
+ * {"errors":[{"field":"price","code":"Range","message":"가격, 1000 ~ 1000000 허용"}]}
+ * - 전역 오류 ( @TotalPriceMin 등 ) 는 field 없음
+ * - message 는 요청 locale 로 찾은 메시지 ( errors.properties )
+ *
+ * ObjectError 를 Jackson 으로 직렬화하지 않고 ( codes, arguments, rejectedValue ... 수 KB ) 필요한 세 값만
+ * 미리 인코딩한 필드 이름으로 바로 쓴다. => 리플렉션 / 빈 직렬화기 없이 수백 byte
+ */
+@Component
+public class ErrorPayloadWriter {
+    private static final SerializedString ERRORS = new SerializedString("errors");
+    private static final SerializedString FIELD = new SerializedString("field");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+
+    private final JsonFactory jsonFactory;
+    private final MessageSource messageSource;
+
+    public ErrorPayloadWriter(ObjectMapper objectMapper, MessageSource messageSource) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.messageSource = messageSource;
+    }
+
+    public byte[] write(List<ObjectError> errors, Locale locale) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + errors.size() * 96);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeFieldName(ERRORS);
+            generator.writeStartArray();
+            for (ObjectError error : errors) {
+                writeError(generator,
+                        error instanceof FieldError fieldError ? fieldError.getField() : null,
+                        error.getCode(),
+                        messageSource.getMessage(error, locale));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 오류 하나 {"field":..,"code":..,"message":..} ( field 가 null 이면 생략 )
+     */
+    static void writeError(JsonGenerator generator, String field, String code, String message) throws IOException {
+        generator.writeStartObject();
+        if (field != null) {
+            generator.writeFieldName(FIELD);
+            generator.writeString(field);
+        }
+        generator.writeFieldName(CODE);
+        generator.writeString(code);
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(message);
+        generator.writeEndObject();
+    }
+}
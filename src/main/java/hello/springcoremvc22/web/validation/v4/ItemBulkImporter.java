@@ -0,0 +1,239 @@
+package hello.springcoremvc22.web.validation.v4;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import hello.springcoremvc22.dto.item.ItemSaveDto;
+import hello.springcoremvc22.validation.CompiledBeanValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 상품 일괄 등록
+ *
+ * - 요청 본문은 JSON 배열 ( [{...}, {...}] ) 또는 NDJSON ( 한 줄에 객체 하나 )
+ * - Jackson 스트리밍 파서로 객체를 하나씩 읽고, batchSize 개씩 검증 + 저장한다.
+ * - 결과는 입력 순서대로 한 줄씩 NDJSON 으로 내보낸다. ( 배치마다 flush )
+ *   {"line":1,"id":10} / {"line":2,"errors":[{"field":"price","code":"Range","message":"..."}]}
+ * - 마지막 줄은 {"saved":n,"failed":m}
+ * => 메모리는 본문 크기와 상관없이 배치 하나 분량만 사용한다.
+ *
+ * JSON 문법 오류는 이후를 읽을 수 없으므로 오류 줄을 남기고 중단한다. ( 이미 저장한 배치는 유지 )
+ */
+@Slf4j
+@Component
+public class ItemBulkImporter {
+    private static final String OBJECT_NAME = "item";
+
+    private final ObjectMapper objectMapper;
+    private final ItemRepository itemRepository;
+    private final CompiledBeanValidator validator;
+    private final MessageSource messageSource;
+    private final int batchSize;
+
+    public ItemBulkImporter(
+            ObjectMapper objectMapper,
+            ItemRepository itemRepository,
+            CompiledBeanValidator validator,
+            MessageSource messageSource,
+            @Value("${item.bulk.batch-size:500}") int batchSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.itemRepository = itemRepository;
+        this.validator = validator;
+        this.messageSource = messageSource;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void importItems(InputStream in, OutputStream out, Locale locale) throws IOException {
+        Result result = new Result();
+        List<Line> batch = new ArrayList<>(batchSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            // 줄 구분은 직접 쓴다. ( 기본 구분자 " " 사용 X )
+            generator.setRootValueSeparator(null);
+
+            int lineNumber = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    lineNumber++;
+                    batch.add(read(parser, token, lineNumber));
+                    if (batch.size() == batchSize) {
+                        flush(batch, generator, locale, result);
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                flush(batch, generator, locale, result);
+                writeError(generator, lineNumber + 1, null, "malformed", e.getOriginalMessage());
+                result.failed++;
+                log.info("일괄 등록 중단: line = {}, message = {}", lineNumber + 1, e.getOriginalMessage());
+            }
+            flush(batch, generator, locale, result);
+
+            generator.writeStartObject();
+            generator.writeNumberField("saved", result.saved);
+            generator.writeNumberField("failed", result.failed);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        log.info("일괄 등록 완료: saved = {}, failed = {}", result.saved, result.failed);
+    }
+
+    /**
+     * 객체 하나를 읽어 DTO 로 변환 + 검증
+     * - 타입 오류 ( "price": "abc" 등 ) 는 해당 줄만 실패로 처리하고 계속 읽는다.
+     */
+    private Line read(JsonParser parser, JsonToken token, int lineNumber) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return Line.mappingError(lineNumber, null, "typeMismatch", "object expected");
+        }
+
+        JsonNode node = objectMapper.readTree(parser);
+        ItemSaveDto dto;
+        try {
+            dto = objectMapper.treeToValue(node, ItemSaveDto.class);
+        } catch (JsonMappingException e) {
+            List<JsonMappingException.Reference> path = e.getPath();
+            String field = path.isEmpty() ? null : path.get(path.size() - 1).getFieldName();
+            return Line.mappingError(lineNumber, field, "typeMismatch", e.getOriginalMessage());
+        }
+
+        BindingResult bindingResult = new BeanPropertyBindingResult(dto, OBJECT_NAME);
+        validator.validate(dto, bindingResult);
+        if (bindingResult.hasErrors()) {
+            return Line.invalid(lineNumber, bindingResult.getAllErrors());
+        }
+        return Line.valid(lineNumber, new Item(dto.getItemName(), dto.getPrice(), dto.getQuantity()));
+    }
+
+    /**
+     * 배치의 유효한 상품을 한 번에 저장하고, 입력 순서대로 결과를 쓴다.
+     */
+    private void flush(List<Line> batch, JsonGenerator generator, Locale locale, Result result) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Item> items = new ArrayList<>(batch.size());
+        for (Line line : batch) {
+            if (line.item != null) {
+                items.add(line.item);
+            }
+        }
+        itemRepository.saveAll(items);
+
+        for (Line line : batch) {
+            if (line.item != null) {
+                generator.writeStartObject();
+                generator.writeNumberField("line", line.number);
+                generator.writeNumberField("id", line.item.getId());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                result.saved++;
+            } else if (line.errors != null) {
+                writeErrors(generator, line.number, line.errors, locale);
+                result.failed++;
+            } else {
+                writeError(generator, line.number, line.field, line.code, line.message);
+                result.failed++;
+            }
+        }
+        generator.flush();
+        batch.clear();
+    }
+
+    private void writeErrors(JsonGenerator generator, int lineNumber, List<ObjectError> errors, Locale locale) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("line", lineNumber);
+        generator.writeArrayFieldStart("errors");
+        for (ObjectError error : errors) {
+            ErrorPayloadWriter.writeError(generator,
+                    error instanceof FieldError fieldError ? fieldError.getField() : null,
+                    error.getCode(),
+                    messageSource.getMessage(error, locale));
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeError(JsonGenerator generator, int lineNumber, String field, String code, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("line", lineNumber);
+        generator.writeArrayFieldStart("errors");
+        ErrorPayloadWriter.writeError(generator, field, code, message);
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * 입력 한 줄의 처리 결과 ( item / errors / 변환 오류 중 하나 )
+     */
+    private static class Line {
+        final int number;
+        Item item;
+        List<ObjectError> errors;
+        String field;
+        String code;
+        String message;
+
+        Line(int number) {
+            this.number = number;
+        }
+
+        static Line valid(int number, Item item) {
+            Line line = new Line(number);
+            line.item = item;
+            return line;
+        }
+
+        static Line invalid(int number, List<ObjectError> errors) {
+            Line line = new Line(number);
+            line.errors = errors;
+            return line;
+        }
+
+        static Line mappingError(int number, String field, String code, String message) {
+            Line line = new Line(number);
+            line.field = field;
+            line.code = code;
+            line.message = message;
+            return line;
+        }
+    }
+
+    private static class Result {
+        int saved;
+        int failed;
+    }
+}
@@ -0,0 +1,126 @@
+package hello.springcoremvc22.web.validation.v4;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import hello.springcoremvc22.dto.item.ItemSaveDto;
+import hello.springcoremvc22.validation.CompiledBeanValidator;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * ValidationItemApiController 의 reactive 버전 ( 같은 검증 결과 )
+ * - 핸들러는 Mono / Flux 만 만들고 바로 반환한다. => 요청 스레드는 응답을 기다리지 않고 풀로 돌아간다.
+ * - 본문 변환 + 검증은 크기가 정해진 스케줄러 ( itemValidationScheduler ) 에서 처리한다.
+ * - 목록은 NDJSON 스트림 ( 클라이언트가 읽는 만큼만 저장소를 순회한다. )
+ *
+ * 서블릿 ( MVC ) 위에서 돌아가므로 본문은 컨테이너가 읽어 둔 byte[] 로 받는다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/validation/api/reactive/items")
+public class ReactiveItemApiController {
+    /**
+     * @RequestBody ItemSaveDto 의 기본 이름 ( 오류의 objectName 을 같게 )
+     */
+    private static final String OBJECT_NAME = "itemSaveDto";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ObjectMapper objectMapper;
+    private final CompiledBeanValidator compiledBeanValidator;
+    private final ErrorPayloadWriter errorPayloadWriter;
+    private final ItemRepository itemRepository;
+    private final Scheduler scheduler;
+
+    public ReactiveItemApiController(
+            ObjectMapper objectMapper,
+            CompiledBeanValidator compiledBeanValidator,
+            ErrorPayloadWriter errorPayloadWriter,
+            ItemRepository itemRepository,
+            @Qualifier("itemValidationScheduler") Scheduler scheduler
+    ) {
+        this.objectMapper = objectMapper;
+        this.compiledBeanValidator = compiledBeanValidator;
+        this.errorPayloadWriter = errorPayloadWriter;
+        this.itemRepository = itemRepository;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 전체 상품 ( NDJSON, id 순 )
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Item> items() {
+        return Flux.fromIterable(itemRepository::iterator);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Item>> item(@PathVariable long itemId) {
+        return Mono.fromSupplier(() -> itemRepository.findById(itemId))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 검증 오류가 있으면 400 + 오류 본문, 없으면 DTO ( ValidationItemApiController.addItem 과 같다. )
+     * - JSON 변환 실패는 같은 예외 ( HttpMessageNotReadableException -> 400 )
+     * - locale 은 요청 스레드에서 미리 꺼내 둔다. ( 스케줄러 스레드에는 LocaleContext 가 없다. )
+     * - 스케줄러 큐가 가득 차서 작업을 거절하면 503 + Retry-After ( 500 이 아니라 잠시 후 다시 시도 )
+     */
+    @PostMapping("/add")
+    public Mono<ResponseEntity<?>> addItem(
+            @RequestBody byte[] body,
+            HttpServletRequest request,
+            Locale locale
+    ) {
+        ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(request);
+        return Mono.<ResponseEntity<?>>fromCallable(() -> validate(decode(body, inputMessage), locale))
+                .subscribeOn(scheduler)
+                .onErrorResume(RejectedExecutionException.class, e -> {
+                    log.warn("검증 스케줄러 포화: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                            .build());
+                });
+    }
+
+    private ItemSaveDto decode(byte[] body, ServletServerHttpRequest inputMessage) {
+        try {
+            return objectMapper.readValue(body, ItemSaveDto.class);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("I/O error while reading input message", e, inputMessage);
+        }
+    }
+
+    private ResponseEntity<?> validate(ItemSaveDto item, Locale locale) {
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, OBJECT_NAME);
+        compiledBeanValidator.validate(item, bindingResult);
+        if (bindingResult.hasErrors()) {
+            log.info("검증 오류 발생: errors = {}", bindingResult.getErrorCount());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(errorPayloadWriter.write(bindingResult.getAllErrors(), locale));
+        }
+        return ResponseEntity.ok(item);
+    }
+}
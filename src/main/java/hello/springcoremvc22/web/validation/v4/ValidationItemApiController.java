@@ -1,31 +1,124 @@
 package hello.springcoremvc22.web.validation.v4;
 
+import hello.springcoremvc22.domain.page.CursorPage;
+import hello.springcoremvc22.domain.search.NameIndex;
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemRepository;
 import hello.springcoremvc22.dto.item.ItemSaveDto;
+import hello.springcoremvc22.validation.CompiledBeanValidator;
+import hello.springcoremvc22.web.cache.ItemETags;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
 
 @Slf4j
 @RestController
 @RequestMapping("/validation/api/items")
+@RequiredArgsConstructor
 public class ValidationItemApiController {
+    private final CompiledBeanValidator compiledBeanValidator;
+    private final ErrorPayloadWriter errorPayloadWriter;
+    private final ItemBulkImporter itemBulkImporter;
+    private final ItemRepository itemRepository;
+
+    /**
+     * DTO 검증에 컴파일된 Bean Validation 사용 ( 오류 결과는 기존과 같다 )
+     */
+    @InitBinder
+    public void init(WebDataBinder dataBinder) {
+        dataBinder.setValidator(compiledBeanValidator);
+    }
+
+    /**
+     * 커서 기반 페이지 조회 ( ETag = 전체 버전 )
+     * - ETag / Last-Modified 를 붙여서 반환하면, If-None-Match 가 맞을 때 본문을 직렬화하지 않고 304 로 끝난다.
+     * - 버전을 먼저 읽고 조회한다. => ETag 가 내용보다 새로울 수 없다.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<Item>> items(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size
+    ) {
+        String etag = ItemETags.of(itemRepository.version());
+        Instant lastModified = itemRepository.lastModified();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .body(itemRepository.findPage(cursor, size));
+    }
+
+    /**
+     * 이름 검색 ( typeahead )
+     * - q 로 시작하는 이름 먼저, 그다음 q 를 포함하는 이름 ( 대소문자 구분 X, 최대 20 개 )
+     */
+    @GetMapping("/search")
+    public List<NameIndex.Match> search(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return itemRepository.searchByName(q, limit);
+    }
+
+    /**
+     * 상품 조회 ( ETag = 상품 버전 )
+     */
+    @GetMapping("/{itemId}")
+    public ResponseEntity<Item> item(@PathVariable long itemId) {
+        Item item = itemRepository.findById(itemId);
+        if (item == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(ItemETags.of(item.getVersion()))
+                .lastModified(item.getLastModified())
+                .body(item);
+    }
+
+    /**
+     * 검증 오류가 있으면 400 + {"errors":[{"field","code","message"}]} ( 요청 locale 의 메시지 )
+     * - ObjectError 를 그대로 직렬화하지 않는다. => ErrorPayloadWriter 가 쓴 byte[] 를 그대로 내보낸다.
+     */
     @PostMapping("/add")
-    public Object addItem(
+    public ResponseEntity<?> addItem(
             @Validated @RequestBody ItemSaveDto item,
-            BindingResult bindingResult
+            BindingResult bindingResult,
+            Locale locale
     ) {
         log.info("POST /validation/api/items/add 호출");
 
         if (bindingResult.hasErrors()) {
-            log.info("검증 오류 발생: errors = {}", bindingResult);
-            return bindingResult.getAllErrors();
+            log.info("검증 오류 발생: errors = {}", bindingResult.getErrorCount());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(errorPayloadWriter.write(bindingResult.getAllErrors(), locale));
         }
 
         log.info("POST /validation/api/items/add 성공");
-        return item;
+        return ResponseEntity.ok(item);
+    }
+
+    /**
+     * 일괄 등록 ( JSON 배열 또는 NDJSON )
+     * - 본문을 스트리밍으로 읽으면서 배치 단위로 검증 + 저장하고, 줄마다 결과를 NDJSON 으로 내보낸다.
+     */
+    @PostMapping(
+            value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public StreamingResponseBody bulk(InputStream body, Locale locale) {
+        log.info("POST /validation/api/items/bulk 호출");
+        return out -> itemBulkImporter.importItems(body, out, locale);
     }
 }
@@ -1,19 +1,29 @@
 package hello.springcoremvc22.web.validation.v4;
 
+import hello.springcoremvc22.domain.page.CursorPage;
 import hello.springcoremvc22.domain.validation.Item;
 import hello.springcoremvc22.domain.validation.ItemRepository;
 import hello.springcoremvc22.dto.item.ItemSaveDto;
 import hello.springcoremvc22.dto.item.ItemUpdateDto;
+import hello.springcoremvc22.validation.CompiledBeanValidator;
+import hello.springcoremvc22.web.cache.ItemETags;
+import hello.springcoremvc22.web.export.ExportFormat;
+import hello.springcoremvc22.web.export.ExportWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
+import java.util.Locale;
 
 @Slf4j
 @Controller
@@ -21,20 +31,74 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ValidationItemControllerV4 {
     private final ItemRepository itemRepository;
+    private final CompiledBeanValidator compiledBeanValidator;
 
+    /**
+     * DTO 검증에 컴파일된 Bean Validation 사용 ( 오류 결과는 기존과 같다 )
+     */
+    @InitBinder
+    public void init(WebDataBinder dataBinder) {
+        dataBinder.setValidator(compiledBeanValidator);
+    }
+
+    /**
+     * 커서 기반 페이지 조회
+     * - cursor: 이전 페이지의 마지막 id ( 없으면 첫 페이지 )
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size,
+            Locale locale,
+            WebRequest webRequest,
+            Model model
+    ) {
+        if (webRequest.checkNotModified(
+                ItemETags.of(itemRepository.version(), locale), itemRepository.lastModified().toEpochMilli())) {
+            return null;
+        }
+        CursorPage<Item> page = itemRepository.findPage(cursor, size);
+        model.addAttribute("items", page.getContent());
+        model.addAttribute("page", page);
         return "validation/v4/items";
     }
 
+    /**
+     * 전체 상품 내보내기 ( format = ndjson | csv )
+     * - 목록을 만들지 않고 저장소를 순회하면서 버퍼 하나로 바로 응답에 쓴다.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> new ExportWriter(out, exportFormat, "id", "itemName", "price", "quantity")
+                .writeAll(itemRepository.iterator(), (writer, item) -> writer.value(item.getId())
+                        .value(item.getItemName())
+                        .value(item.getPrice())
+                        .value(item.getQuantity()));
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.contentDisposition("items"))
+                .body(body);
+    }
+
     @GetMapping("/{itemId}")
     public String item(
             @PathVariable long itemId,
+            Locale locale,
+            WebRequest webRequest,
             Model model
     ) {
         Item item = itemRepository.findById(itemId);
+        if (item != null && webRequest.checkNotModified(
+                ItemETags.of(item.getVersion(), locale), item.getLastModified().toEpochMilli())) {
+            return null;
+        }
         model.addAttribute("item", item);
         return "validation/v4/item";
     }
@@ -51,13 +115,7 @@ public class ValidationItemControllerV4 {
             BindingResult bindingResult,
             RedirectAttributes redirectAttributes
     ) {
-        // 특정 필드가 아닌 복합 룰 검증
-        if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
+        // 복합 룰 ( 가격 * 수량 ) 은 클래스 레벨 @TotalPriceMin 으로 함께 검증된다.
 
         // 검증에 실패하면 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
@@ -89,23 +147,20 @@ public class ValidationItemControllerV4 {
             @Validated @ModelAttribute("item") ItemUpdateDto item,
             BindingResult bindingResult
     ) {
-        // 특정 필드가 아닌 복합 룰 검증
-        if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
+        // 복합 룰 ( 가격 * 수량 ) 은 클래스 레벨 @TotalPriceMin 으로 함께 검증된다.
 
         // 검증에 실패하면 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             return "validation/v4/editForm";
         }
 
-        // 성공 로직
-        itemRepository.update(item.getId(), new Item(
-                item.getItemName(), item.getPrice(), item.getQuantity()
-        ));
+        // 성공 로직 ( 버전이 다르면 - 다른 요청이 먼저 수정 - 다시 입력 폼으로 )
+        Item updateParam = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        updateParam.setVersion(item.getVersion());
+        if (!itemRepository.update(item.getId(), updateParam)) {
+            bindingResult.reject("stale");
+            return "validation/v4/editForm";
+        }
         return "redirect:/validation/v4/items/{itemId}";
     }
 }
@@ -0,0 +1,59 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.SpringCoreMvc22Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 템플릿 링크는 내용 해시 URL, 응답은 immutable 캐시 + 미리 압축한 파일 ( 해시 없는 URL 은 매번 다시 확인 )
+ */
+class StaticAssetTest {
+    private static final Pattern MAIN_CSS = Pattern.compile("/css/main-[0-9a-f]{32}\\.css");
+
+    @Test
+    @DisplayName("링크를 해시 URL 로 바꾸고, 1 년 immutable 캐시 + gzip 파일로 응답한다. ( 해시 없는 URL 은 no-cache )")
+    void fingerprinted() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringCoreMvc22Application.class)
+                .properties("server.port=0")
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+
+            HttpResponse<String> page = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/form/items/add")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = MAIN_CSS.matcher(page.body());
+            assertThat(matcher.find()).isTrue();
+            assertThat(page.body()).doesNotContain("href=\"/css/main.css\"");
+
+            HttpResponse<byte[]> css = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + matcher.group()))
+                            .header("Accept-Encoding", "gzip")
+                            .build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(css.statusCode()).isEqualTo(200);
+            assertThat(css.headers().firstValue("Cache-Control")).hasValueSatisfying(value ->
+                    assertThat(value).contains("max-age=31536000", "immutable"));
+            assertThat(css.headers().firstValue("Content-Encoding")).hasValue("gzip");
+
+            HttpResponse<byte[]> plain = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/css/main.css")).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(plain.statusCode()).isEqualTo(200);
+            assertThat(plain.headers().firstValue("Cache-Control")).hasValueSatisfying(value ->
+                    assertThat(value).contains("no-cache").doesNotContain("immutable", "max-age=31536000"));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package hello.springcoremvc22.config;
+
+import hello.springcoremvc22.SpringCoreMvc22Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadConfigTest {
+
+    @Test
+    @DisplayName("spring.threads.virtual.enabled 에 따라 Tomcat 요청 스레드가 바뀐다.")
+    void requestExecutor() throws Exception {
+        assertThat(runsOnVirtualThread(true)).isTrue();
+        assertThat(runsOnVirtualThread(false)).isFalse();
+    }
+
+    private boolean runsOnVirtualThread(boolean enabled) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringCoreMvc22Application.class)
+                .properties("server.port=0", "spring.threads.virtual.enabled=" + enabled)
+                .run()) {
+            TomcatWebServer webServer = (TomcatWebServer) ((ServletWebServerApplicationContext) context).getWebServer();
+            Executor executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+
+            CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+            executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+            return virtual.get(5, TimeUnit.SECONDS);
+        }
+    }
+}
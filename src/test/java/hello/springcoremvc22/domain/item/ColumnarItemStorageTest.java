@@ -0,0 +1,181 @@
+package hello.springcoremvc22.domain.item;
+
+import hello.springcoremvc22.domain.journal.FsyncPolicy;
+import hello.springcoremvc22.domain.journal.ItemJournal;
+import hello.springcoremvc22.domain.journal.JournalProperties;
+import hello.springcoremvc22.domain.page.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ColumnarItemStorageTest {
+    ColumnarItemStorage storage = new ColumnarItemStorage(100, true);
+    ItemRepository itemRepository = new ItemRepository(null, storage);
+
+    Item book;
+    Item food;
+
+    @BeforeEach
+    void beforeEach() {
+        book = itemRepository.save(item("book", 10000, true, List.of("SEOUL", "BUSAN"), ItemType.BOOK, "FAST"));
+        food = itemRepository.save(item("food", 3000, false, List.of("JEJU"), ItemType.FOOD, "SLOW"));
+    }
+
+    @Test
+    @DisplayName("컬럼에서 읽은 뷰")
+    void view() {
+        Item findItem = itemRepository.findById(book.getId());
+
+        assertThat(findItem.getItemName()).isEqualTo("book");
+        assertThat(findItem.getPrice()).isEqualTo(10000);
+        assertThat(findItem.getQuantity()).isEqualTo(10);
+        assertThat(findItem.getOpen()).isTrue();
+        assertThat(findItem.getRegions()).containsExactly("SEOUL", "BUSAN");
+        assertThat(findItem.getItemType()).isEqualTo(ItemType.BOOK);
+        assertThat(findItem.getDeliveryCode()).isEqualTo("FAST");
+        assertThat(findItem.getVersion()).isEqualTo(book.getVersion());
+        assertThat(findItem.getLastModified()).isEqualTo(book.getLastModified().truncatedTo(ChronoUnit.MILLIS));
+        assertThatThrownBy(() -> findItem.setPrice(1)).isInstanceOf(UnsupportedOperationException.class);
+
+        Item empty = itemRepository.save(new Item());
+        Item findEmpty = itemRepository.findById(empty.getId());
+        assertThat(findEmpty.getItemName()).isNull();
+        assertThat(findEmpty.getPrice()).isNull();
+        assertThat(findEmpty.getOpen()).isNull();
+        assertThat(findEmpty.getRegions()).isNull();
+        assertThat(findEmpty.getItemType()).isNull();
+        assertThat(findEmpty.getDeliveryCode()).isNull();
+    }
+
+    @Test
+    @DisplayName("컬럼 검색")
+    void find() {
+        itemRepository.update(book.getId(), item("book", 2000, false, List.of("JEJU"), ItemType.ETC, "NORMAL"));
+
+        assertThat(itemRepository.findByType(ItemType.BOOK)).isEmpty();
+        assertThat(itemRepository.findByType(ItemType.ETC)).extracting(Item::getId).containsExactly(book.getId());
+        assertThat(itemRepository.findByRegion("SEOUL")).isEmpty();
+        assertThat(itemRepository.findByRegion("JEJU")).extracting(Item::getId).containsExactly(book.getId(), food.getId());
+        assertThat(itemRepository.findByRegion("NOWHERE")).isEmpty();
+        assertThat(itemRepository.findByDeliveryCode("FAST")).isEmpty();
+        assertThat(itemRepository.findOpen()).isEmpty();
+        assertThat(itemRepository.findByPriceBetween(5000, null)).isEmpty();
+        assertThat(itemRepository.findByPriceBetween(null, 5000)).extracting(Item::getId).containsExactly(book.getId(), food.getId());
+
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setRegion("JEJU");
+        cond.setMaxPrice(2500);
+        CursorPage<Item> page = itemRepository.findPage(cond, null, 10);
+        assertThat(page.getContent()).extracting(Item::getId).containsExactly(book.getId());
+
+        // 결과가 없는 조건 ( 빈 가격 범위 / 사전에 없는 지역 ) 과 조건 없는 전체 조회는 서로 섞이지 않는다.
+        ItemSearchCond empty = new ItemSearchCond();
+        empty.setMinPrice(5000);
+        empty.setMaxPrice(1000);
+        assertThat(itemRepository.findPage(empty, null, 10).getContent()).isEmpty();
+        assertThat(itemRepository.findByPriceBetween(5000, 1000)).isEmpty();
+        assertThat(itemRepository.findPage(new ItemSearchCond(), null, 10).getContent())
+                .extracting(Item::getId).containsExactly(book.getId(), food.getId());
+    }
+
+    /**
+     * 수정마다 새 행을 쓰므로 capacity 만큼 차면 살아 있는 행만 옮긴다.
+     * - 옮기기 전에 조회한 뷰는 이전 값을 그대로 보여준다.
+     */
+    @Test
+    @DisplayName("행이 차면 compact")
+    void compact() {
+        Item before = itemRepository.findById(food.getId());
+        for (int i = 0; i < 500; i++) {
+            assertThat(itemRepository.update(food.getId(), item("food", i, false, List.of("JEJU"), ItemType.FOOD, "SLOW"))).isTrue();
+        }
+
+        assertThat(itemRepository.findById(food.getId()).getPrice()).isEqualTo(499);
+        assertThat(itemRepository.findAll()).hasSize(2);
+        assertThat(before.getPrice()).isEqualTo(3000);
+    }
+
+    @Test
+    @DisplayName("capacity 초과")
+    void capacity() {
+        for (int i = 2; i < 100; i++) {
+            itemRepository.save(item("item" + i, i, true, List.of("SEOUL"), ItemType.ETC, "FAST"));
+        }
+
+        assertThatThrownBy(() -> itemRepository.save(new Item())).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * 한도 ( capacity, 지역 64 종류 ) 를 넘는 저장 / 수정은 로그에 남기 전에 실패해야 한다.
+     * - 로그에 남으면 다시 열 때 복구하다가 같은 예외로 시작하지 못한다.
+     */
+    @Test
+    @DisplayName("한도 초과는 로그에 남지 않는다. ( 다시 열어도 복구된다. )")
+    void limitWithJournal(@TempDir Path directory) {
+        ItemJournal<Item> journal = journal(directory);
+        ItemRepository repository = new ItemRepository(journal, new ColumnarItemStorage(3, false));
+        List<String> regions = IntStream.range(0, Long.SIZE).mapToObj(i -> "R" + i).toList();
+        Item full = repository.save(item("full", 10000, true, regions, ItemType.ETC, "FAST"));
+
+        assertThatThrownBy(() -> repository.save(item("over", 10000, true, List.of("R64"), ItemType.ETC, "FAST")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.update(full.getId(), item("over", 10000, true, List.of("R65"), ItemType.ETC, "FAST")))
+                .isInstanceOf(IllegalStateException.class);
+        Item last = repository.save(item("last", 10000, true, List.of("R0"), ItemType.ETC, "FAST"));
+        assertThatThrownBy(() -> repository.save(new Item()))
+                .isInstanceOf(IllegalStateException.class);
+        journal.close();
+
+        ItemRepository reopened = new ItemRepository(journal(directory), new ColumnarItemStorage(3, false));
+
+        assertThat(reopened.findAll()).extracting(Item::getId).containsExactly(full.getId(), last.getId());
+        assertThat(reopened.findById(full.getId()).getRegions()).hasSize(Long.SIZE);
+    }
+
+    @Test
+    @DisplayName("전체 집계 ( 병렬 + 캐시 )")
+    void stats() {
+        for (int i = 0; i < 50; i++) {
+            itemRepository.save(item("item" + i, 100, i % 2 == 0, List.of("SEOUL"), ItemType.ETC, "NORMAL"));
+        }
+
+        ItemStats stats = itemRepository.stats();
+        assertThat(stats.getCount()).isEqualTo(52);
+        assertThat(stats.getTotalValue()).isEqualTo(10000 * 10 + 3000 * 10 + 50L * 100 * 10);
+        assertThat(stats.getByType()).containsEntry(ItemType.BOOK, 1L).containsEntry(ItemType.ETC, 50L);
+        assertThat(stats.getByRegion()).containsEntry("SEOUL", 51L).containsEntry("BUSAN", 1L).containsEntry("JEJU", 1L);
+        assertThat(stats.getByDeliveryCode()).containsEntry("NORMAL", 50L);
+        assertThat(itemRepository.stats()).isSameAs(stats);
+
+        itemRepository.update(food.getId(), item("food", 3000, false, List.of("JEJU"), ItemType.BOOK, "SLOW"));
+        assertThat(itemRepository.stats()).isNotSameAs(stats);
+        assertThat(itemRepository.stats().getByType()).containsEntry(ItemType.BOOK, 2L).doesNotContainKey(ItemType.FOOD);
+    }
+
+    private static Item item(String itemName, int price, boolean open, List<String> regions, ItemType itemType, String deliveryCode) {
+        Item item = new Item(itemName, price, 10);
+        item.setOpen(open);
+        item.setRegions(regions);
+        item.setItemType(itemType);
+        item.setDeliveryCode(deliveryCode);
+        return item;
+    }
+
+    private static ItemJournal<Item> journal(Path directory) {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory);
+        properties.setFsyncPolicy(FsyncPolicy.ALWAYS);
+        properties.setLogSize(64 * 1024);
+        properties.setSnapshotEvery(1000);
+        return new ItemJournal<>("test-items", new ItemJournalCodec(), properties);
+    }
+}
@@ -0,0 +1,315 @@
+package hello.springcoremvc22.domain.item;
+
+import hello.springcoremvc22.domain.journal.FsyncPolicy;
+import hello.springcoremvc22.domain.journal.ItemJournal;
+import hello.springcoremvc22.domain.journal.JournalProperties;
+import hello.springcoremvc22.domain.page.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ItemRepositoryTest {
+    ItemRepository itemRepository = new ItemRepository();
+
+    Item book;
+    Item food;
+
+    @BeforeEach
+    void beforeEach() {
+        book = itemRepository.save(item("book", 10000, true, List.of("SEOUL", "BUSAN"), ItemType.BOOK, "FAST"));
+        food = itemRepository.save(item("food", 3000, false, List.of("JEJU"), ItemType.FOOD, "SLOW"));
+    }
+
+    /**
+     * 조회 결과는 저장된 객체의 복사본이므로 id 로 비교한다.
+     */
+    @Test
+    @DisplayName("인덱스 조회")
+    void findByIndex() {
+        assertThat(itemRepository.findByType(ItemType.BOOK)).extracting(Item::getId).containsExactly(book.getId());
+        assertThat(itemRepository.findByRegion("JEJU")).extracting(Item::getId).containsExactly(food.getId());
+        assertThat(itemRepository.findByDeliveryCode("FAST")).extracting(Item::getId).containsExactly(book.getId());
+        assertThat(itemRepository.findOpen()).extracting(Item::getId).containsExactly(book.getId());
+        assertThat(itemRepository.findByPriceBetween(1000, 5000)).extracting(Item::getId).containsExactly(food.getId());
+        assertThat(itemRepository.findByPriceBetween(null, null)).extracting(Item::getId).containsExactly(book.getId(), food.getId());
+    }
+
+    /**
+     * update() 후에는 이전 값의 인덱스가 제거되고 새 값으로 조회되어야 한다.
+     * - 수정은 새 객체로 교체하므로 id 로 비교한다.
+     */
+    @Test
+    @DisplayName("수정 시 인덱스 갱신")
+    void updateIndex() {
+        itemRepository.update(book.getId(), item("book", 2000, false, List.of("JEJU"), ItemType.ETC, "NORMAL"));
+
+        assertThat(itemRepository.findByType(ItemType.BOOK)).isEmpty();
+        assertThat(itemRepository.findByType(ItemType.ETC)).extracting(Item::getId).containsExactly(book.getId());
+        assertThat(itemRepository.findByRegion("SEOUL")).isEmpty();
+        assertThat(itemRepository.findByRegion("JEJU")).extracting(Item::getId).containsExactly(book.getId(), food.getId());
+        assertThat(itemRepository.findByDeliveryCode("FAST")).isEmpty();
+        assertThat(itemRepository.findOpen()).isEmpty();
+        assertThat(itemRepository.findByPriceBetween(5000, null)).isEmpty();
+        assertThat(itemRepository.findByPriceBetween(null, 5000)).extracting(Item::getId).containsExactly(book.getId(), food.getId());
+    }
+
+    /**
+     * 조회한 뒤 다른 요청이 먼저 수정하면, 조회할 때의 버전으로는 수정할 수 없다.
+     * - 이미 조회한 객체는 바뀌지 않는다. ( 반쯤 바뀐 상태를 볼 수 없다 )
+     */
+    @Test
+    @DisplayName("낙관적 잠금 수정")
+    void updateIfVersionMatches() {
+        Long version = book.getVersion();
+
+        Item first = item("first", 2000, true, List.of("SEOUL"), ItemType.BOOK, "FAST");
+        first.setVersion(version);
+        Item second = item("second", 3000, true, List.of("SEOUL"), ItemType.BOOK, "FAST");
+        second.setVersion(version);
+
+        assertThat(itemRepository.update(book.getId(), first)).isTrue();
+        assertThat(itemRepository.update(book.getId(), second)).isFalse();
+        assertThat(itemRepository.update(999L, first)).isFalse();
+
+        Item findItem = itemRepository.findById(book.getId());
+        assertThat(findItem.getItemName()).isEqualTo("first");
+        assertThat(findItem.getVersion()).isGreaterThan(version);
+        assertThat(book.getItemName()).isEqualTo("book");
+        assertThat(book.getVersion()).isEqualTo(version);
+    }
+
+    /**
+     * 여러 스레드가 같은 상품을 "읽고 -> 가격 + 1 -> 버전 비교 수정" 을 반복해도
+     * 성공한 수정 횟수만큼만 가격이 오른다. ( 잃어버리는 수정이 없다 )
+     */
+    @Test
+    @DisplayName("동시 수정 시 잃어버리는 수정 없음")
+    void concurrentUpdate() throws InterruptedException {
+        int threads = 8;
+        int attempts = 2_000;
+        AtomicInteger updated = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < attempts; i++) {
+                    Item current = itemRepository.findById(food.getId());
+                    Item updateParam = item("food", current.getPrice() + 1, false, List.of("JEJU"), ItemType.FOOD, "SLOW");
+                    updateParam.setVersion(current.getVersion());
+                    if (itemRepository.update(food.getId(), updateParam)) {
+                        updated.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(updated.get()).isPositive();
+        assertThat(itemRepository.findById(food.getId()).getPrice()).isEqualTo(3000 + updated.get());
+        assertThat(itemRepository.findByType(ItemType.FOOD)).hasSize(1);
+    }
+
+    /**
+     * 저장한 객체 / 조회한 객체를 setter 로 바꿔도 저장된 상품과 인덱스는 그대로다.
+     */
+    @Test
+    @DisplayName("조회 결과를 바꿔도 저장소는 그대로")
+    void mutateReturnedItem() {
+        book.setPrice(1);
+        book.setItemType(ItemType.FOOD);
+
+        Item found = itemRepository.findById(book.getId());
+        found.setPrice(2);
+        found.setItemType(ItemType.ETC);
+        assertThatThrownBy(() -> found.getRegions().set(0, "JEJU")).isInstanceOf(UnsupportedOperationException.class);
+        found.setRegions(List.of("JEJU"));
+        itemRepository.findAll().forEach(item -> item.setOpen(false));
+        itemRepository.findPage(null, 10).getContent().forEach(item -> item.setDeliveryCode("SLOW"));
+
+        Item stored = itemRepository.findById(book.getId());
+        assertThat(stored.getPrice()).isEqualTo(10000);
+        assertThat(stored.getItemType()).isEqualTo(ItemType.BOOK);
+        assertThat(stored.getRegions()).containsExactly("SEOUL", "BUSAN");
+        assertThat(stored.getOpen()).isTrue();
+        assertThat(stored.getDeliveryCode()).isEqualTo("FAST");
+        assertThat(stored.getVersion()).isEqualTo(book.getVersion());
+
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setItemType(ItemType.BOOK);
+        cond.setRegion("SEOUL");
+        cond.setMinPrice(5000);
+        assertThat(itemRepository.findPage(cond, null, 10).getContent())
+                .extracting(Item::getId).containsExactly(book.getId());
+        assertThat(itemRepository.findByType(ItemType.ETC)).isEmpty();
+        assertThat(itemRepository.findByRegion("JEJU")).extracting(Item::getId).containsExactly(food.getId());
+        assertThat(itemRepository.findByPriceBetween(null, 100)).isEmpty();
+    }
+
+    /**
+     * 수정은 새 인덱스 항목을 먼저 넣고 이전 값에만 있던 항목을 나중에 지운다.
+     * - 이전 값 / 새 값 모두 조건에 맞으면 수정 중에도 항상 검색된다.
+     */
+    @Test
+    @DisplayName("수정 중에도 조건에 맞는 상품은 검색된다.")
+    void searchDuringUpdate() throws Exception {
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setItemType(ItemType.BOOK);
+        cond.setRegion("SEOUL");
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; running.get(); i++) {
+                List<String> regions = i % 2 == 0 ? List.of("SEOUL") : List.of("BUSAN", "SEOUL");
+                itemRepository.update(book.getId(), item("book", 10000 + i % 2, true, regions, ItemType.BOOK, "FAST"));
+            }
+        });
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                assertThat(itemRepository.findPage(cond, null, 10).getContent())
+                        .extracting(Item::getId).containsExactly(book.getId());
+                assertThat(itemRepository.findByRegion("SEOUL")).extracting(Item::getId).containsExactly(book.getId());
+            }
+        } finally {
+            running.set(false);
+            writer.get();
+            executor.shutdown();
+        }
+
+        itemRepository.update(book.getId(), item("book", 10000, true, List.of("JEJU"), ItemType.BOOK, "FAST"));
+        assertThat(itemRepository.findByRegion("SEOUL")).isEmpty();
+        assertThat(itemRepository.findByRegion("BUSAN")).isEmpty();
+        assertThat(itemRepository.findByType(ItemType.BOOK)).extracting(Item::getId).containsExactly(book.getId());
+        assertThat(itemRepository.findByPriceBetween(10000, 10000)).extracting(Item::getId).containsExactly(book.getId());
+    }
+
+    @Test
+    @DisplayName("검색 조건 + 커서 기반 페이지 조회")
+    void findPageByCond() {
+        for (int i = 0; i < 30; i++) {
+            itemRepository.save(item("book" + i, 1000 * i, i % 2 == 0, List.of("SEOUL"), ItemType.BOOK, "FAST"));
+        }
+
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setItemType(ItemType.BOOK);
+        cond.setOpen(true);
+        cond.setMinPrice(5000);
+
+        CursorPage<Item> first = itemRepository.findPage(cond, null, 10);
+        CursorPage<Item> second = itemRepository.findPage(cond, first.getNextCursor(), 10);
+
+        assertThat(first.getContent()).hasSize(10).allMatch(cond::matches);
+        assertThat(second.getContent()).allMatch(cond::matches);
+        assertThat(second.getContent().get(0).getId()).isGreaterThan(first.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("가격 범위가 뒤집혀 있으면 ( min > max ) 결과 없음")
+    void invertedPriceRange() {
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setMinPrice(5000);
+        cond.setMaxPrice(1000);
+
+        assertThat(itemRepository.findByPriceBetween(5000, 1000)).isEmpty();
+        assertThat(itemRepository.findPage(cond, null, 10).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("가격 범위만 있는 검색도 id 순 커서로 이어진다.")
+    void findPageByPrice() {
+        for (int i = 0; i < 30; i++) {
+            itemRepository.save(item("book" + i, 1000 * (30 - i), true, List.of("SEOUL"), ItemType.BOOK, "FAST"));
+        }
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setMinPrice(5000);
+        cond.setMaxPrice(20000);
+
+        CursorPage<Item> first = itemRepository.findPage(cond, null, 10);
+        CursorPage<Item> second = itemRepository.findPage(cond, first.getNextCursor(), 10);
+
+        assertThat(first.getContent()).hasSize(10).allMatch(cond::matches).isSortedAccordingTo(
+                (a, b) -> Long.compare(a.getId(), b.getId()));
+        assertThat(second.getContent()).hasSize(7).allMatch(cond::matches);
+        assertThat(second.getContent().get(0).getId()).isGreaterThan(first.getNextCursor());
+    }
+
+    /**
+     * 스냅샷 + 로그 재생으로 모든 필드 ( 등록 지역, 배송 방식, 판매 여부, 종류, null 포함 ) 가 복구된다.
+     */
+    @Test
+    @DisplayName("스냅샷 + 로그로 모든 필드 복구")
+    void recoverFromJournal(@TempDir Path directory) {
+        ItemJournal<Item> journal = journal(directory);
+        ItemRepository repository = new ItemRepository(journal);
+        Item first = repository.save(item("book", 10000, true, List.of("SEOUL", "BUSAN"), ItemType.BOOK, "FAST"));
+        Item empty = repository.save(new Item(null, null, null));
+        journal.checkpoint();
+        repository.update(first.getId(), item("food", 3000, false, List.of("JEJU"), ItemType.FOOD, "SLOW"));
+        Item last = repository.save(item("etc", 500, true, List.of(), ItemType.ETC, "NORMAL"));
+        journal.close();
+
+        Item updated = item("food", 3000, false, List.of("JEJU"), ItemType.FOOD, "SLOW");
+        updated.setId(first.getId());
+        ItemRepository recovered = new ItemRepository(journal(directory));
+
+        assertThat(recovered.findAll())
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("version", "lastModified")
+                .containsExactly(updated, empty, last);
+        assertThat(recovered.findByType(ItemType.FOOD)).extracting(Item::getId).containsExactly(first.getId());
+        assertThat(recovered.findByRegion("SEOUL")).isEmpty();
+        assertThat(recovered.findByDeliveryCode("NORMAL")).extracting(Item::getId).containsExactly(last.getId());
+        assertThat(recovered.findOpen()).extracting(Item::getId).containsExactly(last.getId());
+        assertThat(recovered.save(new Item("next", 1000, 10)).getId()).isEqualTo(last.getId() + 1);
+    }
+
+    @Test
+    @DisplayName("전체 집계 ( 병렬 + 캐시 )")
+    void stats() {
+        for (int i = 0; i < 5_000; i++) {
+            itemRepository.save(item("item" + i, 100, i % 2 == 0, List.of("SEOUL"), ItemType.ETC, "NORMAL"));
+        }
+
+        ItemStats stats = itemRepository.stats();
+        assertThat(stats.getCount()).isEqualTo(5_002);
+        assertThat(stats.getTotalValue()).isEqualTo(10000 * 10 + 3000 * 10 + 5_000L * 100 * 10);
+        assertThat(stats.getByType()).containsEntry(ItemType.BOOK, 1L).containsEntry(ItemType.ETC, 5_000L);
+        assertThat(stats.getByRegion()).containsEntry("SEOUL", 5_001L).containsEntry("BUSAN", 1L).containsEntry("JEJU", 1L);
+        assertThat(stats.getByDeliveryCode()).containsEntry("NORMAL", 5_000L);
+        assertThat(itemRepository.stats()).isSameAs(stats);
+
+        itemRepository.update(food.getId(), item("food", 3000, false, List.of("JEJU"), ItemType.BOOK, "SLOW"));
+        assertThat(itemRepository.stats()).isNotSameAs(stats);
+        assertThat(itemRepository.stats().getByType()).containsEntry(ItemType.BOOK, 2L).doesNotContainKey(ItemType.FOOD);
+    }
+
+    private static ItemJournal<Item> journal(Path directory) {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory);
+        properties.setFsyncPolicy(FsyncPolicy.ALWAYS);
+        properties.setLogSize(64 * 1024);
+        properties.setSnapshotEvery(1000);
+        return new ItemJournal<>("test-items", new ItemJournalCodec(), properties);
+    }
+
+    private static Item item(String itemName, int price, boolean open, List<String> regions, ItemType itemType, String deliveryCode) {
+        Item item = new Item(itemName, price, 10);
+        item.setOpen(open);
+        item.setRegions(regions);
+        item.setItemType(itemType);
+        item.setDeliveryCode(deliveryCode);
+        return item;
+    }
+}
@@ -0,0 +1,120 @@
+package hello.springcoremvc22.domain.journal;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemJournalCodec;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemJournalTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * 저장 / 수정 후 다시 열면 같은 상태로 복구되고, ID 도 이어서 발급된다.
+     */
+    @Test
+    @DisplayName("로그 재생으로 복구")
+    void recoverFromLog() {
+        ItemJournal<Item> journal = journal(FsyncPolicy.ALWAYS, 1000);
+        ItemRepository itemRepository = new ItemRepository(journal);
+        Item itemA = itemRepository.save(new Item("itemA", 1000, 10));
+        itemRepository.save(new Item("itemB", 2000, 20));
+        itemRepository.update(itemA.getId(), new Item("itemA2", 3000, 30));
+        journal.close();
+
+        ItemRepository recovered = new ItemRepository(journal(FsyncPolicy.ALWAYS, 1000));
+
+        assertThat(recovered.findAll()).hasSize(2);
+        assertThat(recovered.findById(itemA.getId()).getItemName()).isEqualTo("itemA2");
+        assertThat(recovered.findById(itemA.getId()).getPrice()).isEqualTo(3000);
+        assertThat(recovered.save(new Item("itemC", 1000, 10)).getId()).isEqualTo(3L);
+    }
+
+    /**
+     * 스냅샷을 만든 뒤의 변경은 새 로그에 남고,
+     * 복구 시 스냅샷 + 새 로그를 합쳐서 복구한다. 이전 로그는 지워진다.
+     */
+    @Test
+    @DisplayName("스냅샷 + 로그 꼬리로 복구")
+    void recoverFromSnapshot() throws IOException {
+        ItemJournal<Item> journal = journal(FsyncPolicy.GROUP, 1000);
+        ItemRepository itemRepository = new ItemRepository(journal);
+        for (int i = 0; i < 100; i++) {
+            itemRepository.save(new Item("item" + i, 1000 + i, 10));
+        }
+        journal.checkpoint();
+        itemRepository.update(1L, new Item("updated", 5000, 50));
+        itemRepository.save(new Item("last", 1000, 10));
+        journal.close();
+
+        assertThat(logFiles()).hasSize(1);
+
+        ItemRepository recovered = new ItemRepository(journal(FsyncPolicy.GROUP, 1000));
+        assertThat(recovered.findAll()).hasSize(101);
+        assertThat(recovered.findById(1L).getItemName()).isEqualTo("updated");
+        assertThat(recovered.findById(101L).getItemName()).isEqualTo("last");
+    }
+
+    /**
+     * 마지막 기록을 쓰다가 죽은 경우 ( CRC 불일치 ) 그 기록만 버리고 복구한다.
+     */
+    @Test
+    @DisplayName("깨진 마지막 기록은 무시")
+    void ignoreTornTail() throws IOException {
+        ItemJournal<Item> journal = journal(FsyncPolicy.ALWAYS, 1000);
+        ItemRepository itemRepository = new ItemRepository(journal);
+        itemRepository.save(new Item("itemA", 1000, 10));
+        itemRepository.save(new Item("itemB", 2000, 20));
+        journal.close();
+
+        // 두 번째 기록의 payload 마지막 바이트를 망가뜨린다.
+        Path logFile = logFiles().get(0);
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int first = readInt(channel, MappedLog.HEADER_SIZE);
+            int second = MappedLog.HEADER_SIZE + MappedLog.RECORD_HEADER_SIZE + first;
+            int length = readInt(channel, second);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), second + MappedLog.RECORD_HEADER_SIZE + length - 1);
+        }
+
+        ItemRepository recovered = new ItemRepository(journal(FsyncPolicy.ALWAYS, 1000));
+        assertThat(recovered.findAll()).extracting(Item::getItemName).containsExactly("itemA");
+    }
+
+    private ItemJournal<Item> journal(FsyncPolicy policy, int snapshotEvery) {
+        return journal(directory, policy, snapshotEvery);
+    }
+
+    private static ItemJournal<Item> journal(Path directory, FsyncPolicy policy, int snapshotEvery) {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory);
+        properties.setFsyncPolicy(policy);
+        properties.setLogSize(64 * 1024);
+        properties.setSnapshotEvery(snapshotEvery);
+        return new ItemJournal<>("test-items", new ItemJournalCodec(), properties);
+    }
+
+    private List<Path> logFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".log")).toList();
+        }
+    }
+
+    private static int readInt(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+        channel.read(buffer, position);
+        return buffer.flip().getInt();
+    }
+}
@@ -0,0 +1,75 @@
+package hello.springcoremvc22.domain.search;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NameIndexTest {
+    ItemRepository itemRepository = new ItemRepository();
+
+    Item apple;
+    Item pineapple;
+    Item applePie;
+
+    @BeforeEach
+    void beforeEach() {
+        apple = itemRepository.save(new Item("Apple", 1000, 10));
+        pineapple = itemRepository.save(new Item("Pineapple", 2000, 10));
+        applePie = itemRepository.save(new Item("apple pie", 3000, 10));
+        itemRepository.save(new Item("banana", 4000, 10));
+    }
+
+    @Test
+    @DisplayName("접두어 먼저, 그다음 부분 문자열 ( 대소문자 구분 X )")
+    void search() {
+        assertThat(itemRepository.searchByName("APP", 10))
+                .extracting(NameIndex.Match::itemName)
+                .containsExactly("Apple", "apple pie", "Pineapple");
+        assertThat(itemRepository.searchByName("pie", 10))
+                .extracting(NameIndex.Match::id)
+                .containsExactly(applePie.getId());
+        assertThat(itemRepository.searchByName("a", 10))
+                .extracting(NameIndex.Match::itemName)
+                .containsExactly("Apple", "apple pie");
+        assertThat(itemRepository.searchByName("app", 1)).hasSize(1);
+        assertThat(itemRepository.searchByName("xyz", 10)).isEmpty();
+        assertThat(itemRepository.searchByName(" ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("수정 시 인덱스 갱신")
+    void update() {
+        itemRepository.update(pineapple.getId(), new Item("Grape", 2000, 10));
+
+        assertThat(itemRepository.searchByName("pine", 10)).isEmpty();
+        assertThat(itemRepository.searchByName("app", 10))
+                .extracting(NameIndex.Match::itemName)
+                .containsExactly("Apple", "apple pie");
+        assertThat(itemRepository.searchByName("ape", 10))
+                .extracting(NameIndex.Match::id)
+                .containsExactly(pineapple.getId());
+
+        itemRepository.clearStore();
+        assertThat(itemRepository.searchByName("app", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("부분 문자열은 두 gram 집합의 교집합에서, 후보 MAX_CANDIDATES 개까지만 확인")
+    void substringBudget() {
+        NameIndex nameIndex = new NameIndex();
+        nameIndex.put(1L, "x ananan");
+        for (long id = 2; id <= NameIndex.MAX_CANDIDATES + 2; id++) {
+            nameIndex.put(id, "banana " + id);
+        }
+        nameIndex.put(NameIndex.MAX_CANDIDATES + 3L, "y ananan");
+
+        assertThat(nameIndex.search("ananan", 10))
+                .extracting(NameIndex.Match::id)
+                .containsExactly(1L);
+        assertThat(nameIndex.search("nana", 10)).hasSize(10);
+    }
+}
@@ -0,0 +1,89 @@
+package hello.springcoremvc22.domain.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemRepositoryConcurrencyTest {
+    static final int ITEMS_PER_THREAD = 20_000;
+
+    /**
+     * 여러 스레드가 동시에 저장해도
+     * - ID 가 중복되지 않아야 한다.
+     * - 저장한 개수만큼 조회되어야 한다.
+     */
+    @Test
+    @DisplayName("동시 저장 시 ID 중복 없음")
+    void concurrentSave() throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        ItemRepository itemRepository = new ItemRepository();
+
+        run(itemRepository, threads);
+
+        List<Item> items = itemRepository.findAll();
+        Set<Long> ids = new HashSet<>();
+        for (Item item : items) {
+            ids.add(item.getId());
+        }
+        assertThat(items).hasSize(threads * ITEMS_PER_THREAD);
+        assertThat(ids).hasSize(threads * ITEMS_PER_THREAD);
+    }
+
+    /**
+     * 조회한 객체는 복사본이므로
+     * update() 이후에도 이미 조회한 객체의 값은 바뀌지 않는다.
+     */
+    @Test
+    @DisplayName("조회 결과는 복사본")
+    void copyOnRead() {
+        ItemRepository itemRepository = new ItemRepository();
+        Item savedItem = itemRepository.save(new Item("itemA", 1000, 10));
+
+        Item findItem = itemRepository.findById(savedItem.getId());
+        itemRepository.update(savedItem.getId(), new Item("itemB", 2000, 20));
+
+        assertThat(findItem.getItemName()).isEqualTo("itemA");
+        assertThat(itemRepository.findById(savedItem.getId()).getItemName()).isEqualTo("itemB");
+
+        findItem.setItemName("changed");
+        assertThat(itemRepository.findById(savedItem.getId()).getItemName()).isEqualTo("itemB");
+    }
+
+    /**
+     * 스레드마다 save + findById 를 ITEMS_PER_THREAD 번 수행
+     * - 스레드 수에 따른 처리량은 ItemRepositoryScalingBenchmark ( jmh ) 로 잰다.
+     */
+    private void run(ItemRepository itemRepository, int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ITEMS_PER_THREAD; i++) {
+                        Item savedItem = itemRepository.save(new Item("item" + i, 1000 + i, 10));
+                        itemRepository.findById(savedItem.getId());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+        executor.shutdown();
+    }
+}
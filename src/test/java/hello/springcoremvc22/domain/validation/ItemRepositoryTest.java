@@ -0,0 +1,65 @@
+package hello.springcoremvc22.domain.validation;
+
+import hello.springcoremvc22.domain.page.CursorPage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemRepositoryTest {
+    ItemRepository itemRepository = new ItemRepository();
+
+    /**
+     * 25개 저장 후 size=10 으로 커서를 따라가면
+     * 10 -> 10 -> 5 개씩, id 순서대로 빠짐없이 조회된다.
+     */
+    @Test
+    @DisplayName("커서 기반 페이지 조회")
+    void findPage() {
+        for (int i = 0; i < 25; i++) {
+            itemRepository.save(new Item("item" + i, 1000, 10));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        Long cursor = null;
+        do {
+            CursorPage<Item> page = itemRepository.findPage(cursor, 10);
+            page.getContent().forEach(item -> ids.add(item.getId()));
+            sizes.add(page.getContent().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(sizes).containsExactly(10, 10, 5);
+        assertThat(ids).isSorted().hasSize(25).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("페이지 크기 보정")
+    void findPageNormalizeSize() {
+        itemRepository.save(new Item("itemA", 1000, 10));
+
+        assertThat(itemRepository.findPage(null, 0).getSize()).isEqualTo(1);
+        assertThat(itemRepository.findPage(null, 10_000).getSize()).isEqualTo(CursorPage.MAX_SIZE);
+        assertThat(itemRepository.findPage(null, 10).hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("상품 버전 / 전체 버전")
+    void version() {
+        Item itemA = itemRepository.save(new Item("itemA", 1000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 2000, 20));
+        long versionA = itemRepository.version(itemA.getId());
+        long versionB = itemRepository.version(itemB.getId());
+
+        itemRepository.update(itemB.getId(), new Item("itemB", 3000, 30));
+
+        assertThat(itemRepository.version(itemA.getId())).isEqualTo(versionA);
+        assertThat(itemRepository.version(itemB.getId())).isGreaterThan(versionB);
+        assertThat(itemRepository.version()).isGreaterThan(itemRepository.version(itemB.getId()));
+        assertThat(itemRepository.version(999L)).isZero();
+    }
+}
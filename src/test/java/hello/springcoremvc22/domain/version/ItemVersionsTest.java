@@ -0,0 +1,74 @@
+package hello.springcoremvc22.domain.version;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemVersionsTest {
+    ItemVersions versions = new ItemVersions();
+
+    /**
+     * A 가 먼저 버전을 받고, B 가 나중에 받아서 먼저 publish
+     * - B 의 publish 뒤에 읽은 전체 버전에는 A 의 변경이 없다.
+     * - A 가 publish 하면 전체 버전이 다시 올라가야 한다. ( 그대로면 A 의 변경 없이 캐시된 결과가 계속 쓰인다. )
+     */
+    @Test
+    @DisplayName("먼저 발급받은 쓰기가 늦게 publish 해도 전체 버전이 올라간다.")
+    void publishOutOfOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch aStamped = new CountDownLatch(1);
+        CountDownLatch bPublished = new CountDownLatch(1);
+        CountDownLatch read = new CountDownLatch(1);
+        try {
+            Future<?> writerA = executor.submit(() -> {
+                ItemVersions.Stamp stamp = versions.next();
+                aStamped.countDown();
+                await(read);
+                versions.publish(1L, stamp);
+            });
+            Future<?> writerB = executor.submit(() -> {
+                await(aStamped);
+                versions.publish(2L, versions.next());
+                bPublished.countDown();
+            });
+
+            await(bPublished);
+            long withoutA = versions.collection();
+            read.countDown();
+            writerA.get(10, TimeUnit.SECONDS);
+            writerB.get(10, TimeUnit.SECONDS);
+
+            assertThat(versions.collection()).isGreaterThan(withoutA);
+            assertThat(versions.of(1L)).isLessThan(versions.of(2L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("전체 버전은 publish 마다 올라간다.")
+    void collectionVersion() {
+        long initial = versions.collection();
+
+        ItemVersions.Stamp stamp = versions.touch(1L);
+
+        assertThat(versions.of(1L)).isEqualTo(stamp.version());
+        assertThat(versions.collection()).isGreaterThan(initial).isGreaterThan(stamp.version());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
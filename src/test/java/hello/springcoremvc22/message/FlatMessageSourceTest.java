@@ -0,0 +1,131 @@
+package hello.springcoremvc22.message;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.MessageCodesResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlatMessageSourceTest {
+    static final List<Locale> LOCALES = List.of(
+            Locale.KOREAN, Locale.KOREA, Locale.ENGLISH, Locale.US, Locale.CHINA, Locale.ROOT
+    );
+
+    ResourceBundleMessageSource expected = createResourceBundleMessageSource();
+    FlatMessageSource actual = createFlatMessageSource();
+    MessageCodesResolver codesResolver = new DefaultMessageCodesResolver();
+
+    @Test
+    @DisplayName("모든 코드, 모든 locale 에서 ResourceBundleMessageSource 와 같은 메시지")
+    void sameMessages() throws IOException {
+        Properties codes = new Properties();
+        codes.putAll(load("config/messages/messages.properties"));
+        codes.putAll(load("config/errors/errors.properties"));
+
+        for (Locale locale : LOCALES) {
+            for (String code : codes.stringPropertyNames()) {
+                Object[] args = {1000, 1000000, "arg"};
+                assertThat(actual.getMessage(code, null, locale))
+                        .as("%s %s", code, locale)
+                        .isEqualTo(expected.getMessage(code, null, locale));
+                assertThat(actual.getMessage(code, args, locale))
+                        .as("%s %s", code, locale)
+                        .isEqualTo(expected.getMessage(code, args, locale));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("FieldError 코드 배열은 처음 찾은 코드의 메시지, 없으면 기본 메시지")
+    void codeChain() {
+        for (Locale locale : LOCALES) {
+            for (int i = 0; i < 2; i++) {
+                assertSame(resolvable("range", "item", "price", 1000, 1000000), locale);
+                assertSame(resolvable("range", "itemSaveDto", "price", 1000, 1000000), locale);
+                assertSame(resolvable("required", "item", "itemName"), locale);
+                assertSame(resolvable("Range", "item", "price",
+                        new DefaultMessageSourceResolvable(new String[]{"item.price", "price"}, "price"), 1000000, 1000), locale);
+                assertSame(new DefaultMessageSourceResolvable(
+                        codesResolver.resolveMessageCodes("unknown", "item"), null, "기본 {0}"), locale);
+            }
+        }
+    }
+
+    /**
+     * MAX_LOCALES 를 넘는 locale 은 번들 조합이 같은 공유 테이블을 쓴다. ( 요청마다 번들을 합치지 않는다. )
+     */
+    @Test
+    @DisplayName("locale 이 많아도 테이블 수는 늘지 않고 메시지는 같다.")
+    void manyLocales() {
+        for (int i = 0; i < FlatMessageSource.MAX_LOCALES * 4; i++) {
+            Locale locale = i % 2 == 0 ? Locale.of("x" + i) : Locale.of("en", "X" + i);
+            assertThat(actual.getMessage("hello", null, locale))
+                    .as("%s", locale)
+                    .isEqualTo(expected.getMessage("hello", null, locale));
+            assertThat(actual.getMessage("range", new Object[]{1000, 1000000}, locale))
+                    .isEqualTo(expected.getMessage("range", new Object[]{1000, 1000000}, locale));
+        }
+        assertThat(actual.tableCount()).isLessThanOrEqualTo(FlatMessageSource.MAX_LOCALES + 2);
+    }
+
+    @Test
+    @DisplayName("코드도 기본 메시지도 없으면 예외")
+    void notFound() {
+        assertThatThrownBy(() -> actual.getMessage("no_code", null, Locale.KOREAN))
+                .isInstanceOf(NoSuchMessageException.class);
+        assertThatThrownBy(() -> actual.getMessage(
+                new DefaultMessageSourceResolvable(new String[]{"no_code"}), Locale.KOREAN))
+                .isInstanceOf(NoSuchMessageException.class);
+        assertThat(actual.getMessage("no_code", null, "기본 메시지", Locale.KOREAN)).isEqualTo("기본 메시지");
+    }
+
+    private void assertSame(MessageSourceResolvable resolvable, Locale locale) {
+        assertThat(actual.getMessage(resolvable, locale))
+                .as("%s %s", String.join(",", resolvable.getCodes()), locale)
+                .isEqualTo(expected.getMessage(resolvable, locale));
+    }
+
+    private MessageSourceResolvable resolvable(String errorCode, String objectName, String field, Object... args) {
+        return new DefaultMessageSourceResolvable(
+                codesResolver.resolveMessageCodes(errorCode, objectName, field, Integer.class), args);
+    }
+
+    private static Properties load(String path) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = FlatMessageSourceTest.class.getClassLoader().getResourceAsStream(path)) {
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        return properties;
+    }
+
+    private static ResourceBundleMessageSource createResourceBundleMessageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("config.messages.messages", "config.errors.errors");
+        messageSource.setDefaultEncoding("utf-8");
+        return messageSource;
+    }
+
+    private static FlatMessageSource createFlatMessageSource() {
+        FlatMessageSource messageSource = new FlatMessageSource(
+                new DefaultResourceLoader(), StandardCharsets.UTF_8,
+                "config.messages.messages", "config.errors.errors"
+        );
+        messageSource.load();
+        return messageSource;
+    }
+}
@@ -0,0 +1,105 @@
+package hello.springcoremvc22.message;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageBundleReloadTest {
+    @TempDir
+    Path directory;
+
+    FlatMessageSource messageSource;
+    MessageBundleWatcher watcher;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        Files.createDirectories(directory.resolve("config/messages"));
+        write("messages.properties", "hello = 안녕\nbye = 잘가");
+        write("messages_en.properties", "hello = hello");
+
+        messageSource = new FlatMessageSource(new DefaultResourceLoader(), StandardCharsets.UTF_8, "config.messages.messages");
+        messageSource.setLocation(directory.toUri().toString());
+        messageSource.setFallbackToSystemLocale(false);
+        messageSource.load();
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        if (watcher != null) {
+            watcher.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("바뀐 번들만 다시 읽고, 그 번들을 쓰지 않는 locale 의 테이블은 유지한다.")
+    void reloadChangedBundle() throws IOException {
+        assertThat(messageSource.getMessage("hello", null, Locale.ENGLISH)).isEqualTo("hello");
+        assertThat(messageSource.getMessage("hello", null, Locale.KOREAN)).isEqualTo("안녕");
+
+        write("messages_en.properties", "hello = hi");
+        messageSource.reload("config.messages.messages_en");
+
+        assertThat(messageSource.getMessage("hello", null, Locale.ENGLISH)).isEqualTo("hi");
+        assertThat(messageSource.getMessage("hello", null, Locale.KOREAN)).isEqualTo("안녕");
+        assertThat(messageSource.getMessage("bye", null, Locale.ENGLISH)).isEqualTo("잘가");
+    }
+
+    @Test
+    @DisplayName("기본 번들이 바뀌면 모든 locale 에 반영된다.")
+    void reloadBaseBundle() throws IOException {
+        assertThat(messageSource.getMessage("bye", null, Locale.ENGLISH)).isEqualTo("잘가");
+
+        write("messages.properties", "hello = 안녕\nbye = 안녕히");
+        messageSource.reload("config.messages.messages");
+
+        assertThat(messageSource.getMessage("bye", null, Locale.ENGLISH)).isEqualTo("안녕히");
+        assertThat(messageSource.getMessage("bye", null, Locale.KOREAN)).isEqualTo("안녕히");
+    }
+
+    @Test
+    @DisplayName("새 locale 번들이 생기면 그 locale 이 새 번들을 쓴다.")
+    void newBundle() throws IOException {
+        assertThat(messageSource.getMessage("hello", null, Locale.JAPANESE)).isEqualTo("안녕");
+
+        write("messages_ja.properties", "hello = こんにちは");
+        messageSource.reload("config.messages.messages_ja");
+
+        assertThat(messageSource.getMessage("hello", null, Locale.JAPANESE)).isEqualTo("こんにちは");
+    }
+
+    @Test
+    @DisplayName("파일을 저장하면 감시 스레드가 다시 읽고 이벤트를 발행한다.")
+    void watch() throws Exception {
+        List<Object> events = new CopyOnWriteArrayList<>();
+        watcher = new MessageBundleWatcher(messageSource, events::add, Duration.ofMillis(50));
+        watcher.afterPropertiesSet();
+
+        write("messages_en.properties", "hello = hi");
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!"hi".equals(messageSource.getMessage("hello", null, Locale.ENGLISH)) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(messageSource.getMessage("hello", null, Locale.ENGLISH)).isEqualTo("hi");
+        assertThat(events).first().isInstanceOfSatisfying(MessagesReloadedEvent.class,
+                event -> assertThat(event.getLocale()).isEqualTo(Locale.ENGLISH));
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Files.writeString(directory.resolve("config/messages").resolve(fileName), content, StandardCharsets.UTF_8);
+    }
+}
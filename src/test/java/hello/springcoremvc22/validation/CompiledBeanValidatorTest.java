@@ -0,0 +1,80 @@
+package hello.springcoremvc22.validation;
+
+import hello.springcoremvc22.dto.item.ItemSaveDto;
+import hello.springcoremvc22.dto.item.ItemUpdateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompiledBeanValidatorTest {
+    LocalValidatorFactoryBean beanValidator = createValidator();
+    CompiledBeanValidator compiledValidator = new CompiledBeanValidator(
+            beanValidator, true, ItemSaveDto.class, ItemUpdateDto.class
+    );
+
+    @AfterEach
+    void afterEach() {
+        beanValidator.destroy();
+    }
+
+    /**
+     * 컴파일된 검사 결과가 Bean Validation 의 오류 유무와 같아야 하고,
+     * 오류가 있을 때는 Bean Validation 과 같은 오류 ( 코드, 인자 ) 를 만들어야 한다.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "itemA, 10000, 10",
+            "' ', 10000, 10",
+            ", , ",
+            "itemA, 999, 10",
+            "itemA, 1000000, 9999",
+            "itemA, 1000001, 10000",
+            "itemA, 1000, 9",
+    })
+    void sameErrors(String itemName, Integer price, Integer quantity) {
+        ItemSaveDto item = new ItemSaveDto();
+        item.setItemName(itemName);
+        item.setPrice(price);
+        item.setQuantity(quantity);
+
+        BindingResult expected = new BeanPropertyBindingResult(item, "item");
+        beanValidator.validate(item, expected);
+
+        BindingResult actual = new BeanPropertyBindingResult(item, "item");
+        compiledValidator.validate(item, actual);
+
+        assertThat(compiledValidator.isValid(item)).isEqualTo(!expected.hasErrors());
+        assertThat(actual.getErrorCount()).isEqualTo(expected.getErrorCount());
+        for (FieldError fieldError : expected.getFieldErrors()) {
+            FieldError actualError = actual.getFieldError(fieldError.getField());
+            assertThat(actualError).isNotNull();
+            assertThat(actualError.getCodes()).containsExactly(fieldError.getCodes());
+            assertThat(actualError.getArguments()).hasSameSizeAs(fieldError.getArguments());
+        }
+    }
+
+    @Test
+    void updateDto() {
+        ItemUpdateDto item = new ItemUpdateDto();
+        item.setItemName("itemA");
+        item.setPrice(10000);
+
+        assertThat(compiledValidator.isValid(item)).isFalse();
+
+        item.setId(1L);
+        assertThat(compiledValidator.isValid(item)).isTrue();
+    }
+
+    private static LocalValidatorFactoryBean createValidator() {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        return validator;
+    }
+}
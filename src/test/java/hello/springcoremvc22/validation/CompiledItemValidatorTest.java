@@ -0,0 +1,60 @@
+package hello.springcoremvc22.validation;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.web.validation.v2.CompiledItemValidator;
+import hello.springcoremvc22.web.validation.v2.ItemValidator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompiledItemValidatorTest {
+    ItemValidator itemValidator = new ItemValidator();
+    CompiledItemValidator compiledItemValidator = new CompiledItemValidator();
+
+    /**
+     * 같은 입력에 대해 ItemValidator 와 같은 오류 ( 코드, 인자, 필드, 거부된 값 ) 를 만들어야 한다.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "itemA, 10000, 10",
+            "' ', 10000, 10",
+            ", , ",
+            "itemA, 10, 10000",
+            "itemA, 1000, 9",
+            "itemA, 2000000, 9999",
+    })
+    void sameErrors(String itemName, Integer price, Integer quantity) {
+        Item item = new Item(itemName, price, quantity);
+
+        BindingResult expected = new BeanPropertyBindingResult(item, "item");
+        itemValidator.validate(item, expected);
+
+        BindingResult actual = new BeanPropertyBindingResult(item, "item");
+        compiledItemValidator.validate(item, actual);
+
+        assertSameErrors(actual.getAllErrors(), expected.getAllErrors());
+    }
+
+    private static void assertSameErrors(List<ObjectError> actual, List<ObjectError> expected) {
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            ObjectError e = expected.get(i);
+            ObjectError a = actual.get(i);
+            assertThat(a.getClass()).isEqualTo(e.getClass());
+            assertThat(a.getObjectName()).isEqualTo(e.getObjectName());
+            assertThat(a.getCodes()).containsExactly(e.getCodes());
+            assertThat(a.getArguments()).isEqualTo(e.getArguments());
+            if (e instanceof FieldError fieldError) {
+                assertThat(((FieldError) a).getField()).isEqualTo(fieldError.getField());
+                assertThat(((FieldError) a).getRejectedValue()).isEqualTo(fieldError.getRejectedValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package hello.springcoremvc22.validation;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.SaveCheck;
+import hello.springcoremvc22.dto.item.ItemSaveDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TotalPriceMinTest {
+    ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+    Validator validator = factory.getValidator();
+
+    @AfterEach
+    void afterEach() {
+        factory.close();
+    }
+
+    @Test
+    @DisplayName("가격 * 수량이 최소값보다 작으면 현재 값과 함께 오류")
+    void totalPriceMin() {
+        ItemSaveDto item = createDto(1000, 9);
+
+        Set<ConstraintViolation<ItemSaveDto>> violations = validator.validate(item);
+
+        assertThat(violations).hasSize(1);
+        ConstraintViolation<ItemSaveDto> violation = violations.iterator().next();
+        assertThat(violation.getConstraintDescriptor().getAnnotation()).isInstanceOf(TotalPriceMin.class);
+        assertThat(violation.getPropertyPath().toString()).isEmpty();
+        assertThat(violation.getMessage()).contains("10000", "9000");
+    }
+
+    @Test
+    @DisplayName("int 범위를 넘는 곱셈도 넘치지 않는다.")
+    void overflow() {
+        ItemSaveDto item = createDto(1000000, 9999);
+
+        assertThat(validator.validate(item)).isEmpty();
+        assertThat(TotalPriceMinValidator.totalPrice(1000000, 9999)).isEqualTo(9999000000L);
+    }
+
+    @Test
+    @DisplayName("가격 또는 수량이 없으면 검사하지 않는다.")
+    void nullValues() {
+        assertThat(TotalPriceMinValidator.isValid(createDto(null, 1), 10000)).isTrue();
+        assertThat(TotalPriceMinValidator.isValid(createDto(1000, null), 10000)).isTrue();
+    }
+
+    @Test
+    @DisplayName("도메인 객체에서는 지정한 그룹으로 검증할 때만 검사한다.")
+    void groups() {
+        Item item = new Item("itemA", 1000, 1);
+
+        assertThat(validator.validate(item)).isEmpty();
+        assertThat(validator.validate(item, SaveCheck.class)).hasSize(1);
+    }
+
+    private static ItemSaveDto createDto(Integer price, Integer quantity) {
+        ItemSaveDto item = new ItemSaveDto();
+        item.setItemName("itemA");
+        item.setPrice(price);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
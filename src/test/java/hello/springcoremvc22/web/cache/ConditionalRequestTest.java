@@ -0,0 +1,90 @@
+package hello.springcoremvc22.web.cache;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import hello.springcoremvc22.web.validation.v1.ValidationItemControllerV1;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 상품 버전으로 만든 ETag / Last-Modified 로 조건부 요청에 답하는지 확인
+ */
+class ConditionalRequestTest {
+    ItemRepository itemRepository = new ItemRepository();
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ValidationItemControllerV1(itemRepository)).build();
+
+    Item itemA;
+    Item itemB;
+
+    @BeforeEach
+    void beforeEach() {
+        itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        itemB = itemRepository.save(new Item("itemB", 20000, 20));
+    }
+
+    @Test
+    @DisplayName("상세: 상품 버전이 같으면 304, 다른 상품이 수정되어도 304, 그 상품이 수정되면 200")
+    void item() throws Exception {
+        String uri = "/validation/v1/items/" + itemA.getId();
+        MvcResult first = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ItemETags.of(itemA.getVersion(), Locale.ENGLISH)))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        itemRepository.update(itemB.getId(), new Item("itemB", 30000, 30));
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        itemRepository.update(itemA.getId(), new Item("itemA", 30000, 30));
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("item"));
+    }
+
+    @Test
+    @DisplayName("목록: 전체 버전 + locale 로 ETag 를 만든다.")
+    void items() throws Exception {
+        String etag = mockMvc.perform(get("/validation/v1/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/validation/v1/items").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/validation/v1/items").header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .locale(Locale.KOREAN))
+                .andExpect(status().isOk());
+
+        itemRepository.save(new Item("itemC", 10000, 10));
+        mockMvc.perform(get("/validation/v1/items").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("버전은 저장 / 수정마다 증가하고, 복사본에도 붙어 있다.")
+    void version() {
+        long before = itemRepository.findById(itemA.getId()).getVersion();
+        itemRepository.update(itemA.getId(), new Item("itemA", 30000, 30));
+        Item updated = itemRepository.findById(itemA.getId());
+
+        assertThat(updated.getVersion()).isGreaterThan(before);
+        assertThat(itemRepository.version()).isGreaterThan(updated.getVersion());
+        assertThat(updated.getLastModified()).isNotNull();
+    }
+}
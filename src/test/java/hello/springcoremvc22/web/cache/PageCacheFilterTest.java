@@ -0,0 +1,126 @@
+package hello.springcoremvc22.web.cache;
+
+import hello.springcoremvc22.domain.item.Item;
+import hello.springcoremvc22.domain.item.ItemRepository;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageCacheFilterTest {
+    ItemRepository itemRepository = new ItemRepository();
+    RenderedPageCache cache = new RenderedPageCache(2);
+    PageCacheFilter filter = new PageCacheFilter(cache, new AcceptHeaderLocaleResolver());
+
+    /**
+     * 컨트롤러 + 템플릿 대신: 호출 횟수를 세고 상품 이름을 렌더링한다.
+     */
+    AtomicInteger rendered = new AtomicInteger();
+    FilterChain chain = (request, response) -> {
+        rendered.incrementAndGet();
+        response.setContentType("text/html;charset=UTF-8");
+        response.getWriter().write("<h1>" + itemRepository.findById(1L).getItemName() + "</h1>");
+    };
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+        filter.addPage("/form/items/{itemId:\\d{1,18}}",
+                variables -> itemRepository.version(Long.valueOf(variables.get("itemId"))));
+    }
+
+    @Test
+    @DisplayName("같은 버전이면 캐시한 본문을 쓰고, If-None-Match 가 맞으면 304")
+    void cached() throws Exception {
+        MockHttpServletResponse first = get("/form/items/1", null);
+        MockHttpServletResponse second = get("/form/items/1", null);
+        MockHttpServletResponse conditional = get("/form/items/1", first.getHeader(HttpHeaders.ETAG));
+
+        assertThat(rendered.get()).isEqualTo(1);
+        assertThat(first.getContentAsString()).isEqualTo("<h1>itemA</h1>");
+        assertThat(second.getContentAsString()).isEqualTo("<h1>itemA</h1>");
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+        assertThat(conditional.getStatus()).isEqualTo(304);
+        assertThat(conditional.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("수정된 상품의 페이지만 다시 렌더링한다.")
+    void invalidate() throws Exception {
+        String etag = get("/form/items/1", null).getHeader(HttpHeaders.ETAG);
+
+        itemRepository.update(2L, new Item("itemB", 30000, 30));
+        assertThat(get("/form/items/1", etag).getStatus()).isEqualTo(304);
+        assertThat(rendered.get()).isEqualTo(1);
+
+        itemRepository.update(1L, new Item("itemC", 10000, 10));
+        MockHttpServletResponse response = get("/form/items/1", etag);
+        assertThat(rendered.get()).isEqualTo(2);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("<h1>itemC</h1>");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("locale 이 다르거나 ?lang= 요청이거나 등록되지 않은 경로면 캐시를 쓰지 않는다.")
+    void notCached() throws Exception {
+        get("/form/items/1", null);
+
+        MockHttpServletRequest korean = new MockHttpServletRequest("GET", "/form/items/1");
+        korean.addPreferredLocale(Locale.KOREAN);
+        filter.doFilter(korean, new MockHttpServletResponse(), chain);
+
+        MockHttpServletRequest lang = new MockHttpServletRequest("GET", "/form/items/1");
+        lang.setParameter("lang", "en");
+        lang.setQueryString("lang=en");
+        filter.doFilter(lang, new MockHttpServletResponse(), chain);
+
+        get("/form/items/add", null);
+
+        assertThat(rendered.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 가장 오래 사용하지 않은 페이지를 버린다.")
+    void lru() {
+        RenderedPageCache.Page page = new RenderedPageCache.Page(1, "text/html", new byte[0], "\"a\"", null);
+        cache.put("/a", Locale.ENGLISH, page);
+        cache.put("/b", Locale.ENGLISH, page);
+        cache.get("/a", Locale.ENGLISH, 1);
+        cache.put("/c", Locale.ENGLISH, page);
+
+        assertThat(cache.get("/a", Locale.ENGLISH, 1)).isNotNull();
+        assertThat(cache.get("/b", Locale.ENGLISH, 1)).isNull();
+        assertThat(cache.get("/c", Locale.ENGLISH, 2)).isNull();
+    }
+
+    @Test
+    @DisplayName("If-None-Match 비교")
+    void matches() {
+        assertThat(PageCacheFilter.matches("\"a\", \"b\"", "\"b\"")).isTrue();
+        assertThat(PageCacheFilter.matches("W/\"b\"", "\"b\"")).isTrue();
+        assertThat(PageCacheFilter.matches("*", "\"b\"")).isTrue();
+        assertThat(PageCacheFilter.matches("\"a\"", "\"b\"")).isFalse();
+        assertThat(PageCacheFilter.matches(null, "\"b\"")).isFalse();
+    }
+
+    private MockHttpServletResponse get(String uri, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
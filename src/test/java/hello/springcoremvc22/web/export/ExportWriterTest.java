@@ -0,0 +1,101 @@
+package hello.springcoremvc22.web.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springcoremvc22.domain.item.ItemType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportWriterTest {
+    @Test
+    @DisplayName("NDJSON: 한 줄에 하나의 JSON 객체")
+    void ndjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(out, ExportFormat.NDJSON, "id", "itemName", "open", "regions", "itemType");
+        writer.header();
+        writer.value(1L).value("상품 \"A\"\n😀").value(true).value(List.of("SEOUL", "JEJU")).value(ItemType.BOOK);
+        writer.endRow();
+        writer.value(-20L).value(null).value(null).value(null).value(null);
+        writer.endRow();
+        writer.flush();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("itemName").asText()).isEqualTo("상품 \"A\"\n😀");
+        assertThat(first.get("open").asBoolean()).isTrue();
+        assertThat(first.get("regions").get(1).asText()).isEqualTo("JEJU");
+        assertThat(first.get("itemType").asText()).isEqualTo("BOOK");
+
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("id").asLong()).isEqualTo(-20L);
+        assertThat(second.get("itemName").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("CSV: 컬럼 이름 줄 + 필요한 값만 따옴표")
+    void csv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(out, ExportFormat.CSV, "id", "itemName", "regions");
+        writer.header();
+        writer.value(1L).value("itemA").value(List.of("SEOUL", "JEJU"));
+        writer.endRow();
+        writer.value(2L).value("a,\"b\"").value(null);
+        writer.endRow();
+        writer.value(3L).value("itemC").value(List.of("SEOUL", "NEW \"YORK\", US"));
+        writer.endRow();
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,itemName,regions\n" +
+                "1,itemA,SEOUL|JEJU\n" +
+                "2,\"a,\"\"b\"\"\",\n" +
+                "3,itemC,\"SEOUL|NEW \"\"YORK\"\", US\"\n"
+        );
+    }
+
+    @Test
+    @DisplayName("버퍼보다 큰 출력도 순서대로 나뉘어 쓰인다.")
+    void smallBuffer() throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        ExportWriter large = new ExportWriter(expected, ExportFormat.CSV, "id", "itemName");
+        ExportWriter small = new ExportWriter(actual, ExportFormat.CSV, 64, "id", "itemName");
+
+        for (long i = 0; i < 1000; i++) {
+            large.value(i * 1234567L).value("상품" + i);
+            large.endRow();
+            small.value(i * 1234567L).value("상품" + i);
+            small.endRow();
+        }
+        large.flush();
+        small.flush();
+
+        assertThat(actual.toByteArray()).isEqualTo(expected.toByteArray());
+        assertThat(actual.toString(StandardCharsets.UTF_8)).startsWith("0,상품0\n1234567,상품1\n");
+    }
+
+    @Test
+    @DisplayName("writeAll: 머리줄 + 행마다 값 + endRow")
+    void writeAll() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ExportWriter(out, ExportFormat.CSV, "id", "itemName")
+                .writeAll(List.of("itemA", "itemB").iterator(), (writer, name) -> writer.value(name.length()).value(name));
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,itemName\n" +
+                "5,itemA\n" +
+                "5,itemB\n"
+        );
+    }
+}
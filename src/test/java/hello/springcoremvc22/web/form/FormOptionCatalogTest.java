@@ -0,0 +1,71 @@
+package hello.springcoremvc22.web.form;
+
+import hello.springcoremvc22.message.MessagesReloadedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FormOptionCatalogTest {
+    StaticMessageSource messageSource = createMessageSource();
+    FormOptionCatalog catalog = new FormOptionCatalog(messageSource);
+
+    @Test
+    @DisplayName("같은 locale 이면 같은 ( 수정 불가 ) 카탈로그를 준다.")
+    void cached() {
+        FormOptionCatalog.Options ko = catalog.get(Locale.KOREAN);
+
+        assertThat(catalog.get(Locale.KOREAN)).isSameAs(ko);
+        assertThat(ko.getRegions()).containsEntry("SEOUL", "서울");
+        assertThat(ko.getDeliveryCodes()).extracting("displayName").containsExactly("빠른 배송", "일반 배송", "느린 배송");
+        assertThat(catalog.get(Locale.ENGLISH).getRegions()).containsEntry("SEOUL", "Seoul");
+        assertThatThrownBy(() -> ko.getRegions().put("DAEGU", "대구")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("메시지 번들이 다시 로드되면 새로 만든다.")
+    void reload() {
+        FormOptionCatalog.Options before = catalog.get(Locale.KOREAN);
+
+        messageSource.addMessage("option.regions.seoul", Locale.KOREAN, "서울특별시");
+        catalog.reload();
+
+        FormOptionCatalog.Options after = catalog.get(Locale.KOREAN);
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getRegions()).containsEntry("SEOUL", "서울특별시");
+    }
+
+    @Test
+    @DisplayName("캐시하는 locale 수는 제한된다.")
+    void maxLocales() {
+        for (int i = 0; i < FormOptionCatalog.MAX_LOCALES; i++) {
+            catalog.get(new Locale("x" + i));
+        }
+        Locale overflow = new Locale("overflow");
+
+        assertThat(catalog.get(overflow)).isNotSameAs(catalog.get(overflow));
+        assertThat(catalog.get(overflow).getRegions()).containsEntry("SEOUL", "option.regions.seoul");
+    }
+
+    private static StaticMessageSource createMessageSource() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        messageSource.addMessage("option.regions.seoul", Locale.KOREAN, "서울");
+        messageSource.addMessage("option.regions.busan", Locale.KOREAN, "부산");
+        messageSource.addMessage("option.regions.jeju", Locale.KOREAN, "제주");
+        messageSource.addMessage("option.deliveryCode.fast", Locale.KOREAN, "빠른 배송");
+        messageSource.addMessage("option.deliveryCode.normal", Locale.KOREAN, "일반 배송");
+        messageSource.addMessage("option.deliveryCode.slow", Locale.KOREAN, "느린 배송");
+        messageSource.addMessage("option.regions.seoul", Locale.ENGLISH, "Seoul");
+        messageSource.addMessage("option.regions.busan", Locale.ENGLISH, "Busan");
+        messageSource.addMessage("option.regions.jeju", Locale.ENGLISH, "Jeju");
+        messageSource.addMessage("option.deliveryCode.fast", Locale.ENGLISH, "Fast");
+        messageSource.addMessage("option.deliveryCode.normal", Locale.ENGLISH, "Normal");
+        messageSource.addMessage("option.deliveryCode.slow", Locale.ENGLISH, "Slow");
+        return messageSource;
+    }
+}
@@ -0,0 +1,82 @@
+package hello.springcoremvc22.web.locale;
+
+import hello.springcoremvc22.SpringCoreMvc22Application;
+import org.apache.catalina.Context;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 세션 방식 vs 서명한 쿠키 방식
+ * - 방문자마다 ?lang=ko 로 언어를 바꾸고, 다음 요청에서 그 언어가 유지되는지 확인한다.
+ * - 끝난 뒤의 활성 세션 수를 확인한다. ( 처리량 / 힙 비교는 LocaleResolverBenchmark )
+ */
+public class LocaleResolverLoadTest {
+    static final int VISITORS = 100;
+
+    @Test
+    @DisplayName("쿠키 방식은 ?lang= 을 유지하면서 세션을 만들지 않는다.")
+    void sessions() throws Exception {
+        assertThat(activeSessions("session")).isEqualTo(VISITORS);
+        assertThat(activeSessions("cookie")).isZero();
+    }
+
+    private int activeSessions(String resolverType) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringCoreMvc22Application.class)
+                .properties("server.port=0", "locale.resolver=" + resolverType, "locale.cookie.secret=load-test",
+                        "spring.messages.fallback-to-system-locale=false")
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+
+            for (int i = 0; i < VISITORS; i++) {
+                HttpResponse<String> changed = client.send(request(port, "/form/items?lang=ko", null),
+                        HttpResponse.BodyHandlers.ofString());
+                String cookies = cookies(changed.headers().allValues(HttpHeaders.SET_COOKIE));
+
+                HttpResponse<String> next = client.send(request(port, "/form/items", cookies),
+                        HttpResponse.BodyHandlers.ofString());
+                assertThat(next.body()).contains("상품 등록");
+            }
+
+            Context webContext = (Context) ((TomcatWebServer) ((ServletWebServerApplicationContext) context)
+                    .getWebServer()).getTomcat().getHost().findChildren()[0];
+            return webContext.getManager().getActiveSessions();
+        }
+    }
+
+    private static HttpRequest request(int port, String path, String cookies) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "en-US");
+        if (!cookies.isEmpty()) {
+            builder.header(HttpHeaders.COOKIE, cookies);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Set-Cookie 들에서 이름=값 만 모은다.
+     */
+    private static String cookies(List<String> setCookies) {
+        StringBuilder cookies = new StringBuilder();
+        for (String setCookie : setCookies) {
+            if (cookies.length() > 0) {
+                cookies.append("; ");
+            }
+            cookies.append(setCookie, 0, setCookie.indexOf(';') < 0 ? setCookie.length() : setCookie.indexOf(';'));
+        }
+        return cookies.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package hello.springcoremvc22.web.locale;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignedCookieLocaleResolverTest {
+    SignedCookieLocaleResolver resolver = new SignedCookieLocaleResolver(
+            "secret".getBytes(StandardCharsets.UTF_8), Locale.ENGLISH
+    );
+
+    @Test
+    @DisplayName("setLocale 은 세션 없이 서명한 쿠키를 내려주고, 다음 요청에서 그 쿠키로 locale 을 정한다.")
+    void cookie() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resolver.setLocale(request, response, Locale.KOREAN);
+
+        assertThat(request.getSession(false)).isNull();
+        assertThat(resolver.resolveLocale(request)).isEqualTo(Locale.KOREAN);
+
+        Cookie cookie = response.getCookie(SignedCookieLocaleResolver.DEFAULT_COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.isHttpOnly()).isTrue();
+
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(new Cookie(cookie.getName(), cookie.getValue()));
+        next.addHeader(HttpHeaders.ACCEPT_LANGUAGE, "en-US");
+        assertThat(resolver.resolveLocale(next)).isEqualTo(Locale.KOREAN);
+    }
+
+    @Test
+    @DisplayName("서명이 맞지 않는 쿠키는 무시하고 Accept-Language 를 쓴다.")
+    void tamperedCookie() {
+        String value = "ko." + resolver.sign("ko");
+        String tampered = "ja" + value.substring(2);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(SignedCookieLocaleResolver.DEFAULT_COOKIE_NAME, tampered));
+        request.addHeader(HttpHeaders.ACCEPT_LANGUAGE, "fr-FR,fr;q=0.9");
+
+        assertThat(resolver.verify(value)).isEqualTo(Locale.KOREAN);
+        assertThat(resolver.verify(tampered)).isNull();
+        assertThat(resolver.resolveLocale(request)).isEqualTo(Locale.FRANCE);
+    }
+
+    @Test
+    @DisplayName("Accept-Language: 우선순위가 가장 높은 locale, 없거나 잘못되면 기본 locale")
+    void acceptLanguage() {
+        assertThat(resolver.fromHeader("ko;q=0.5, en-US;q=0.8")).isEqualTo(Locale.US);
+        assertThat(resolver.fromHeader("*, ko;q=0.1")).isEqualTo(Locale.KOREAN);
+        assertThat(resolver.fromHeader(null)).isEqualTo(Locale.ENGLISH);
+        assertThat(resolver.fromHeader("not a ;; header")).isEqualTo(Locale.ENGLISH);
+    }
+
+    @Test
+    @DisplayName("setLocale(null) 은 쿠키를 지운다.")
+    void reset() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_LANGUAGE, "ko");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        resolver.setLocale(request, response, null);
+
+        assertThat(response.getCookie(SignedCookieLocaleResolver.DEFAULT_COOKIE_NAME).getMaxAge()).isZero();
+        assertThat(resolver.resolveLocale(request)).isEqualTo(Locale.KOREAN);
+    }
+}
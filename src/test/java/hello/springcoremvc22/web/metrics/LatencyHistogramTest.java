@@ -0,0 +1,38 @@
+package hello.springcoremvc22.web.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("칸의 오차는 1/16 이내")
+    void buckets() {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            int index = LatencyHistogram.index(value);
+            long upper = LatencyHistogram.upperBound(index);
+            assertThat(upper).isGreaterThanOrEqualTo(value);
+            assertThat(upper - value).isLessThanOrEqualTo(Math.max(value / 16, 0) + 1);
+        }
+        assertThat(LatencyHistogram.index(Long.MAX_VALUE)).isLessThan((Long.SIZE - 4) * 16);
+    }
+
+    @Test
+    @DisplayName("백분위 ( µs )")
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat(snapshot.mean()).isCloseTo(500.5, within(0.1));
+        assertThat(snapshot.p50()).isCloseTo(500, within(500 / 16.0));
+        assertThat(snapshot.p99()).isCloseTo(990, within(990 / 16.0));
+        assertThat(snapshot.max()).isEqualTo(1000.0);
+    }
+}
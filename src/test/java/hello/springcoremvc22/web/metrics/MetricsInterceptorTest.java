@@ -0,0 +1,55 @@
+package hello.springcoremvc22.web.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsInterceptorTest {
+    RequestMetrics metrics = new RequestMetrics();
+    MetricsInterceptor interceptor = new MetricsInterceptor(metrics);
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    /**
+     * trace 는 요청 동안만 스레드에 걸려 있다. ( 요청마다 새 가상 스레드여도 스레드에 남지 않는다. )
+     */
+    @Test
+    @DisplayName("요청이 끝나면 trace 를 기록하고 스레드에서 떼어 낸다.")
+    void detachOnCompletion() throws Exception {
+        HandlerMethod handler = new HandlerMethod(this, MetricsInterceptorTest.class.getDeclaredMethod("detachOnCompletion"));
+        AtomicBoolean activeDuringRequest = new AtomicBoolean();
+
+        Thread.ofVirtual().start(() -> {
+            interceptor.preHandle(request, response, handler);
+            RequestTrace.current().add(Phase.HANDLER, 1000);
+            activeDuringRequest.set(RequestTrace.current().isActive());
+            interceptor.postHandle(request, response, handler, null);
+            interceptor.afterCompletion(request, response, handler, null);
+        }).join();
+
+        assertThat(activeDuringRequest).isTrue();
+        assertThat(RequestTrace.current().isActive()).isFalse();
+        Map<String, Object> recorded = metrics.snapshot().get("MetricsInterceptorTest#detachOnCompletion");
+        assertThat((Map<?, ?>) recorded.get("phases")).containsKeys("handler", "total");
+    }
+
+    @Test
+    @DisplayName("비동기 요청의 첫 디스패치는 기록하지 않고 버린다.")
+    void discardOnAsyncStart() throws Exception {
+        HandlerMethod handler = new HandlerMethod(this, MetricsInterceptorTest.class.getDeclaredMethod("discardOnAsyncStart"));
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+
+        assertThat(RequestTrace.current().isActive()).isFalse();
+        assertThat(metrics.snapshot().get("MetricsInterceptorTest#discardOnAsyncStart").get("phases"))
+                .isEqualTo(Map.of());
+    }
+}
@@ -0,0 +1,75 @@
+package hello.springcoremvc22.web.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springcoremvc22.SpringCoreMvc22Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /validation/v3/items/add 의 구간별 기록 + 검증 실패 코드
+ */
+class RequestMetricsTest {
+
+    @Test
+    @DisplayName("바인딩 / 검증 / 컨트롤러 / 저장소 / 렌더링 구간과 실패 코드를 기록한다.")
+    void phases() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringCoreMvc22Application.class)
+                .properties("server.port=0", "metrics.enabled=true")
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+
+            send(client, port, "itemName=itemA&price=10000&quantity=10");
+            HttpResponse<String> failed = send(client, port, "itemName=itemB&price=100&quantity=10");
+            assertThat(failed.body()).contains("price * quantity must be at least 10,000.");
+
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/internal/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode addItem = new ObjectMapper().readTree(response.body()).get("ValidationItemControllerV3#addItem");
+
+            List<String> phases = new ArrayList<>();
+            addItem.get("phases").fieldNames().forEachRemaining(phases::add);
+            assertThat(phases).contains("binding", "validation", "handler", "repository", "render", "total");
+            assertThat(addItem.get("phases").get("total").get("count").asLong()).isEqualTo(2);
+            assertThat(addItem.get("phases").get("repository").get("count").asLong()).isEqualTo(1);
+            assertThat(addItem.get("failures").get("TotalPriceMin").asLong()).isEqualTo(1);
+            assertThat(context.getBean(RequestMappingHandlerAdapter.class))
+                    .isInstanceOf(TimedRequestMappingHandlerAdapter.class);
+        }
+    }
+
+    @Test
+    @DisplayName("지표가 꺼져 있으면 인터셉터 / 시간 재는 어댑터를 등록하지 않는다.")
+    void disabled() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringCoreMvc22Application.class)
+                .properties("server.port=0", "metrics.enabled=false")
+                .run()) {
+            assertThat(context.getBeanProvider(MetricsInterceptor.class).getIfAvailable()).isNull();
+            assertThat(context.getBean(RequestMappingHandlerAdapter.class))
+                    .isNotInstanceOf(TimedRequestMappingHandlerAdapter.class);
+        }
+    }
+
+    private static HttpResponse<String> send(HttpClient client, int port, String form) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/validation/v3/items/add"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,92 @@
+package hello.springcoremvc22.web.validation.v3;
+
+import hello.springcoremvc22.domain.validation.Item;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import hello.springcoremvc22.message.FlatMessageSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.ObjectError;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ValidationItemControllerV3Test {
+    ItemRepository itemRepository = new ItemRepository();
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ValidationItemControllerV3(itemRepository)).build();
+
+    /**
+     * 두 사용자가 같은 버전으로 수정 폼을 열고 차례로 저장하면
+     * - 먼저 저장한 쪽만 반영되고
+     * - 나중에 저장한 쪽은 글로벌 오류 ( stale ) 와 함께 수정 폼으로 돌아간다.
+     */
+    @Test
+    @DisplayName("수정 폼을 연 뒤 다른 요청이 먼저 수정하면 오류")
+    void staleEdit() throws Exception {
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        String version = String.valueOf(item.getVersion());
+
+        mockMvc.perform(edit(item.getId(), "first", version))
+                .andExpect(status().is3xxRedirection());
+
+        mockMvc.perform(edit(item.getId(), "second", version))
+                .andExpect(status().isOk())
+                .andExpect(view().name("validation/v3/editForm"))
+                .andExpect(model().attributeHasErrors("item"));
+
+        assertThat(itemRepository.findById(item.getId()).getItemName()).isEqualTo("first");
+    }
+
+    /**
+     * 클래스 레벨 @TotalPriceMin 오류는 TotalPriceMin.item 으로 찾는다. ( {1} = 최소 금액 )
+     */
+    @Test
+    @DisplayName("가격 * 수량 오류 메시지 ( ko / en )")
+    void totalPriceMinMessage() throws Exception {
+        MvcResult result = mockMvc.perform(post("/validation/v3/items/add")
+                        .param("itemName", "itemA")
+                        .param("price", "100")
+                        .param("quantity", "10"))
+                .andExpect(view().name("validation/v3/addForm"))
+                .andReturn();
+
+        BindingResult bindingResult = (BindingResult) result.getModelAndView().getModel()
+                .get(BindingResult.MODEL_KEY_PREFIX + "item");
+        ObjectError error = bindingResult.getGlobalError();
+        FlatMessageSource messageSource = createMessageSource();
+
+        assertThat(error.getCode()).isEqualTo("TotalPriceMin");
+        assertThat(messageSource.getMessage(error, Locale.KOREAN))
+                .isEqualTo("상품의 가격 * 수량의 합은 10,000원 이상이어야 합니다.");
+        assertThat(messageSource.getMessage(error, Locale.ENGLISH))
+                .isEqualTo("The item's price * quantity must be at least 10,000.");
+    }
+
+    private static FlatMessageSource createMessageSource() {
+        FlatMessageSource messageSource = new FlatMessageSource(
+                new DefaultResourceLoader(), StandardCharsets.UTF_8,
+                "config.messages.messages", "config.errors.errors"
+        );
+        messageSource.setFallbackToSystemLocale(false);
+        messageSource.load();
+        return messageSource;
+    }
+
+    private static MockHttpServletRequestBuilder edit(Long itemId, String itemName, String version) {
+        return post("/validation/v3/items/{itemId}/edit", itemId)
+                .param("id", String.valueOf(itemId))
+                .param("itemName", itemName)
+                .param("price", "10000")
+                .param("quantity", "10")
+                .param("version", version);
+    }
+}
@@ -0,0 +1,68 @@
+package hello.springcoremvc22.web.validation.v4;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorPayloadWriterTest {
+    ObjectMapper objectMapper = new ObjectMapper();
+    ErrorPayloadWriter writer = new ErrorPayloadWriter(objectMapper, createMessageSource());
+
+    @Test
+    @DisplayName("field, code, 메시지만 쓴다. ( 전역 오류는 field 없음 )")
+    void compact() throws IOException {
+        List<ObjectError> errors = List.of(
+                new FieldError("itemSaveDto", "itemName", " ", false,
+                        new String[]{"NotBlank.itemSaveDto.itemName", "NotBlank"}, null, null),
+                new ObjectError("itemSaveDto", new String[]{"TotalPriceMin.itemSaveDto", "TotalPriceMin"},
+                        new Object[]{"itemSaveDto", 10000L}, null)
+        );
+
+        JsonNode payload = objectMapper.readTree(writer.write(errors, Locale.KOREAN));
+
+        assertThat(payload.size()).isEqualTo(1);
+        JsonNode field = payload.get("errors").get(0);
+        assertThat(field.size()).isEqualTo(3);
+        assertThat(field.get("field").asText()).isEqualTo("itemName");
+        assertThat(field.get("code").asText()).isEqualTo("NotBlank");
+        assertThat(field.get("message").asText()).isEqualTo("공백 X");
+
+        JsonNode global = payload.get("errors").get(1);
+        assertThat(global.has("field")).isFalse();
+        assertThat(global.get("code").asText()).isEqualTo("TotalPriceMin");
+        assertThat(global.get("message").asText()).isEqualTo("전체 가격은 10,000원 이상이어야 합니다.");
+    }
+
+    @Test
+    @DisplayName("메시지는 요청 locale 로 찾는다.")
+    void locale() throws IOException {
+        List<ObjectError> errors = List.of(
+                new FieldError("itemSaveDto", "itemName", " ", false, new String[]{"NotBlank"}, null, null)
+        );
+
+        JsonNode ko = objectMapper.readTree(writer.write(errors, Locale.KOREAN));
+        JsonNode en = objectMapper.readTree(writer.write(errors, Locale.ENGLISH));
+
+        assertThat(ko.get("errors").get(0).get("message").asText()).isEqualTo("공백 X");
+        assertThat(en.get("errors").get(0).get("message").asText()).isEqualTo("must not be blank");
+    }
+
+    private static StaticMessageSource createMessageSource() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("NotBlank", Locale.KOREAN, "공백 X");
+        messageSource.addMessage("NotBlank", Locale.ENGLISH, "must not be blank");
+        messageSource.addMessage("TotalPriceMin", Locale.KOREAN, "전체 가격은 {1}원 이상이어야 합니다.");
+        messageSource.setUseCodeAsDefaultMessage(true);
+        return messageSource;
+    }
+}
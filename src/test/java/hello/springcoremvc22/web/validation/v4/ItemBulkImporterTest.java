@@ -0,0 +1,132 @@
+package hello.springcoremvc22.web.validation.v4;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import hello.springcoremvc22.dto.item.ItemSaveDto;
+import hello.springcoremvc22.dto.item.ItemUpdateDto;
+import hello.springcoremvc22.message.FlatMessageSource;
+import hello.springcoremvc22.validation.CompiledBeanValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemBulkImporterTest {
+    ObjectMapper objectMapper = new ObjectMapper();
+    ItemRepository itemRepository = new ItemRepository();
+    LocalValidatorFactoryBean beanValidator = createValidator();
+    CompiledBeanValidator validator = new CompiledBeanValidator(
+            beanValidator, true, ItemSaveDto.class, ItemUpdateDto.class
+    );
+    ItemBulkImporter importer = new ItemBulkImporter(
+            objectMapper, itemRepository, validator, createMessageSource(), 2
+    );
+
+    @AfterEach
+    void afterEach() {
+        beanValidator.destroy();
+    }
+
+    @Test
+    @DisplayName("JSON 배열: 입력 순서대로 결과, 유효한 항목만 저장")
+    void jsonArray() throws IOException {
+        String body = """
+                [
+                  {"itemName": "itemA", "price": 10000, "quantity": 10},
+                  {"itemName": " ", "price": 10000, "quantity": 10},
+                  {"itemName": "itemC", "price": "abc", "quantity": 10},
+                  {"itemName": "itemD", "price": 1000, "quantity": 1},
+                  {"itemName": "itemE", "price": 20000, "quantity": 5}
+                ]
+                """;
+
+        List<JsonNode> lines = run(body);
+
+        assertThat(lines).hasSize(6);
+        assertThat(lines.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(lines.get(1).get("errors").get(0).get("field").asText()).isEqualTo("itemName");
+        assertThat(lines.get(2).get("errors").get(0).get("field").asText()).isEqualTo("price");
+        assertThat(lines.get(2).get("errors").get(0).get("code").asText()).isEqualTo("typeMismatch");
+        assertThat(lines.get(3).get("errors").get(0).get("code").asText()).isEqualTo("TotalPriceMin");
+        assertThat(lines.get(3).get("errors").get(0).get("message").asText()).isEqualTo("전체 가격은 10,000원 이상이어야 합니다.");
+        assertThat(lines.get(4).get("id").asLong()).isEqualTo(2L);
+        assertThat(lines.get(5).get("saved").asInt()).isEqualTo(2);
+        assertThat(lines.get(5).get("failed").asInt()).isEqualTo(3);
+
+        assertThat(itemRepository.findAll()).extracting("itemName").containsExactly("itemA", "itemE");
+    }
+
+    @Test
+    @DisplayName("NDJSON: 한 줄에 객체 하나")
+    void ndjson() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1001; i++) {
+            body.append("{\"itemName\":\"item").append(i).append("\",\"price\":10000,\"quantity\":10}\n");
+        }
+
+        List<JsonNode> lines = run(body.toString());
+
+        assertThat(lines).hasSize(1002);
+        assertThat(lines.get(1000).get("line").asInt()).isEqualTo(1001);
+        assertThat(lines.get(1001).get("saved").asInt()).isEqualTo(1001);
+        assertThat(itemRepository.findAll()).hasSize(1001);
+    }
+
+    @Test
+    @DisplayName("JSON 문법 오류: 앞의 항목은 저장하고 중단")
+    void malformed() throws IOException {
+        String body = """
+                {"itemName": "itemA", "price": 10000, "quantity": 10}
+                {"itemName": "itemB", "price": 10000,
+                """;
+
+        List<JsonNode> lines = run(body);
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(lines.get(1).get("line").asInt()).isEqualTo(2);
+        assertThat(lines.get(1).get("errors").get(0).get("code").asText()).isEqualTo("malformed");
+        assertThat(itemRepository.findAll()).hasSize(1);
+    }
+
+    private List<JsonNode> run(String body) throws IOException {
+        InputStream in = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importer.importItems(in, out, Locale.KOREA);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static FlatMessageSource createMessageSource() {
+        FlatMessageSource messageSource = new FlatMessageSource(
+                new DefaultResourceLoader(), StandardCharsets.UTF_8,
+                "config.messages.messages", "config.errors.errors"
+        );
+        messageSource.setFallbackToSystemLocale(false);
+        messageSource.load();
+        return messageSource;
+    }
+
+    private static LocalValidatorFactoryBean createValidator() {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        return validator;
+    }
+}
@@ -0,0 +1,122 @@
+package hello.springcoremvc22.web.validation.v4;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springcoremvc22.domain.validation.ItemRepository;
+import hello.springcoremvc22.dto.item.ItemSaveDto;
+import hello.springcoremvc22.dto.item.ItemUpdateDto;
+import hello.springcoremvc22.validation.CompiledBeanValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * reactive 버전은 서블릿 버전과 같은 검증 결과를 반환해야 한다.
+ */
+class ReactiveItemApiControllerTest {
+    ObjectMapper objectMapper = new ObjectMapper();
+    ItemRepository itemRepository = new ItemRepository();
+    LocalValidatorFactoryBean beanValidator = createValidator();
+    CompiledBeanValidator validator = new CompiledBeanValidator(
+            beanValidator, true, ItemSaveDto.class, ItemUpdateDto.class
+    );
+    Scheduler scheduler = Schedulers.newBoundedElastic(2, 100, "item-validation-test");
+    StaticMessageSource messageSource = createMessageSource();
+    ErrorPayloadWriter errorPayloadWriter = new ErrorPayloadWriter(objectMapper, messageSource);
+
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+            new ValidationItemApiController(validator, errorPayloadWriter,
+                    new ItemBulkImporter(objectMapper, itemRepository, validator, messageSource, 10),
+                    itemRepository),
+            new ReactiveItemApiController(objectMapper, validator, errorPayloadWriter, itemRepository, scheduler)
+    ).build();
+
+    @AfterEach
+    void afterEach() {
+        beanValidator.destroy();
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("검증 성공 / 실패 결과가 서블릿 버전과 같다.")
+    void sameValidationOutput() throws Exception {
+        String[] bodies = {
+                "{\"itemName\": \"itemA\", \"price\": 10000, \"quantity\": 10}",
+                "{\"itemName\": \" \", \"price\": 10000, \"quantity\": 10}",
+                "{\"itemName\": \"itemA\", \"price\": 10000, \"quantity\": null}",
+        };
+        for (String body : bodies) {
+            MvcResult servlet = mockMvc.perform(post("/validation/api/items/add")
+                    .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+
+            MvcResult started = mockMvc.perform(post("/validation/api/reactive/items/add")
+                            .contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            MvcResult reactive = mockMvc.perform(asyncDispatch(started)).andReturn();
+
+            assertThat(reactive.getResponse().getStatus()).isEqualTo(servlet.getResponse().getStatus());
+            assertThat(reactive.getResponse().getContentAsString()).isEqualTo(servlet.getResponse().getContentAsString());
+        }
+    }
+
+    @Test
+    @DisplayName("JSON 변환 실패는 서블릿 버전처럼 400")
+    void malformed() throws Exception {
+        String body = "{\"itemName\": \"itemA\", \"price\": \"abc\"}";
+
+        MvcResult servlet = mockMvc.perform(post("/validation/api/items/add")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+        MvcResult started = mockMvc.perform(post("/validation/api/reactive/items/add")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+        MvcResult reactive = mockMvc.perform(asyncDispatch(started)).andReturn();
+
+        assertThat(servlet.getResponse().getStatus()).isEqualTo(400);
+        assertThat(reactive.getResponse().getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("스케줄러가 작업을 거절하면 503 + Retry-After")
+    void rejected() throws Exception {
+        Scheduler rejecting = Schedulers.newBoundedElastic(1, 1, "item-validation-rejecting");
+        rejecting.dispose();
+        MockMvc rejectingMvc = MockMvcBuilders.standaloneSetup(
+                new ReactiveItemApiController(objectMapper, validator, errorPayloadWriter, itemRepository, rejecting)
+        ).build();
+
+        MvcResult started = rejectingMvc.perform(post("/validation/api/reactive/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\": \"itemA\", \"price\": 10000, \"quantity\": 10}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = rejectingMvc.perform(asyncDispatch(started)).andReturn();
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(503);
+        assertThat(result.getResponse().getHeader("Retry-After")).isEqualTo("1");
+        assertThat(itemRepository.findAll()).isEmpty();
+    }
+
+    private static StaticMessageSource createMessageSource() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        return messageSource;
+    }
+
+    private static LocalValidatorFactoryBean createValidator() {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        return validator;
+    }
+}